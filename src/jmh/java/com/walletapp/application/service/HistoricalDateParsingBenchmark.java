@@ -0,0 +1,37 @@
+package com.walletapp.application.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing do parâmetro {@code at} de {@link WalletService#retrieveHistoricalBalance} nos formatos aceitos.
+ * Fica no pacote do serviço para chamar o método package-private usado pela consulta.
+ * Executar com: mvn -Pjmh compile exec:exec -Djmh.args="HistoricalDateParsing -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistoricalDateParsingBenchmark {
+
+    @Param({"2024-03-15 10:30:00", "2024-03-15T10:30:00"})
+    private String dateTime;
+
+    @Benchmark
+    public LocalDateTime parse() {
+        return WalletService.parseDateTime(dateTime);
+    }
+}
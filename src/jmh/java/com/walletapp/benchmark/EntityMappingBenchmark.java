@@ -0,0 +1,64 @@
+package com.walletapp.benchmark;
+
+import com.walletapp.domain.model.Transaction;
+import com.walletapp.domain.model.TransactionType;
+import com.walletapp.domain.model.Wallet;
+import com.walletapp.infrastructure.persistence.TransactionEntity;
+import com.walletapp.infrastructure.persistence.WalletEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão entre modelo de domínio e entidades JPA, executada a cada transação gravada e a cada carteira lida.
+ * Executar com: mvn -Pjmh compile exec:exec -Djmh.args="EntityMapping -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMappingBenchmark {
+
+    private Transaction transaction;
+    private TransactionEntity transactionEntity;
+    private WalletEntity walletEntity;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transaction = new Transaction(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("150.75"),
+                TransactionType.DEPOSIT, LocalDateTime.now(), UUID.randomUUID());
+        transactionEntity = TransactionEntity.fromDomain(transaction);
+        walletEntity = WalletEntity.fromDomain(new Wallet(UUID.randomUUID(), UUID.randomUUID(),
+                new BigDecimal("2500.00"), LocalDateTime.now(), 3L));
+    }
+
+    @Benchmark
+    public TransactionEntity transactionFromDomain() {
+        return TransactionEntity.fromDomain(transaction);
+    }
+
+    @Benchmark
+    public Transaction transactionToDomain() {
+        return transactionEntity.toDomain();
+    }
+
+    @Benchmark
+    public Wallet walletToDomain() {
+        return walletEntity.toDomain();
+    }
+}
@@ -0,0 +1,78 @@
+package com.walletapp.benchmark;
+
+import com.walletapp.domain.model.MinorUnits;
+import com.walletapp.domain.model.TransactionType;
+import com.walletapp.infrastructure.persistence.TransactionEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Soma com sinal do saldo histórico (a mesma feita pelos checkpoints) com valores em BigDecimal e em centavos.
+ * Executar com: mvn -Pjmh compile exec:exec -Djmh.args="HistoricalBalanceFold -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistoricalBalanceFoldBenchmark {
+
+    @Param({"1000", "100000"})
+    private int transactions;
+
+    private BigDecimal[] decimalAmounts;
+    private TransactionType[] types;
+    private List<TransactionEntity> ledger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        decimalAmounts = new BigDecimal[transactions];
+        types = new TransactionType[transactions];
+        ledger = new ArrayList<>(transactions);
+        for (int i = 0; i < transactions; i++) {
+            long cents = (i % 10_000) + 1;
+            TransactionType type = i % 4 == 3 ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT;
+            decimalAmounts[i] = MinorUnits.toDecimal(cents);
+            types[i] = type;
+
+            TransactionEntity entity = new TransactionEntity();
+            entity.setAmountMinor(cents);
+            entity.setType(type);
+            ledger.add(entity);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal balance = BigDecimal.ZERO;
+        for (int i = 0; i < transactions; i++) {
+            balance = types[i].isCredit() ? balance.add(decimalAmounts[i]) : balance.subtract(decimalAmounts[i]);
+        }
+        return balance;
+    }
+
+    @Benchmark
+    public long minorUnits() {
+        long balance = 0;
+        for (TransactionEntity tx : ledger) {
+            balance = MinorUnits.add(balance, tx.signedAmountMinor());
+        }
+        return balance;
+    }
+}
@@ -0,0 +1,53 @@
+package com.walletapp.benchmark;
+
+import com.walletapp.domain.model.Wallet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de um depósito e de um saque como o serviço faz, sem banco: validação e conversão do valor recebido
+ * para centavos, uma vez, e a aritmética em {@code long} de {@link Wallet#deposit} e {@link Wallet#withdraw}.
+ * Executar com: mvn -Pjmh compile exec:exec -Djmh.args="WalletOperations -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WalletOperationsBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("12.34");
+
+    private Wallet wallet;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        // Saldo alto o bastante para que os saques de uma iteração nunca esgotem a carteira
+        wallet = new Wallet(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("1000000000000.00"), null);
+    }
+
+    @Benchmark
+    public long deposit() {
+        wallet.deposit(Wallet.validateDepositAmount(AMOUNT));
+        return wallet.getBalanceMinor();
+    }
+
+    @Benchmark
+    public long withdraw() {
+        wallet.withdraw(Wallet.validateWithdrawalAmount(AMOUNT));
+        return wallet.getBalanceMinor();
+    }
+}
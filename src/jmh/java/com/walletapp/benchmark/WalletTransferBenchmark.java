@@ -0,0 +1,107 @@
+package com.walletapp.benchmark;
+
+import com.walletapp.WalletserviceApplication;
+import com.walletapp.application.service.WalletService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transferência ponta a ponta por {@link WalletService} sobre H2 embarcado: lock das duas carteiras, ledger,
+ * idempotência e commit. {@code wallets} controla a disputa (2 = todas as threads na mesma dupla).
+ * Executar com: mvn -Pjmh compile exec:exec -Djmh.args="WalletTransfer"
+ * A estratégia pode ser trocada com -Djmh.args="WalletTransfer -p strategy=ATOMIC".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class WalletTransferBenchmark {
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({"2", "1000"})
+    private int wallets;
+
+    @Param({"PESSIMISTIC"})
+    private String strategy;
+
+    private ConfigurableApplicationContext context;
+    private WalletService walletService;
+    private UUID[] walletIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WalletserviceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:jmh-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "wallet.concurrency.strategy=" + strategy,
+                        // Os logs INFO por operação mediriam o appender, não a transferência
+                        "logging.level.com.walletapp=WARN")
+                .run();
+        walletService = context.getBean(WalletService.class);
+        walletIds = new UUID[wallets];
+        for (int i = 0; i < wallets; i++) {
+            walletIds[i] = walletService.createWallet(UUID.randomUUID());
+            walletService.depositFunds(walletIds[i], INITIAL_BALANCE, UUID.randomUUID());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void transfer1Thread() {
+        transfer();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void transfer4Threads() {
+        transfer();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void transfer16Threads() {
+        transfer();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void transfer64Threads() {
+        transfer();
+    }
+
+    private void transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(wallets);
+        int to = (from + 1 + random.nextInt(wallets - 1)) % wallets;
+        walletService.transferFunds(walletIds[from], walletIds[to], AMOUNT, UUID.randomUUID());
+    }
+}
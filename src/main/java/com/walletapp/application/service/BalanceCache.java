@@ -0,0 +1,170 @@
+package com.walletapp.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Cache de saldos para as carteiras mais consultadas. As mutações invalidam a carteira quando a transação
+ * termina, confirmada ou desfeita, antes de responder ao cliente: a leitura seguinte no mesmo nó já vê o
+ * saldo gravado. Invalidar em vez de gravar o novo saldo evita que commits concorrentes deixem um valor
+ * mais antigo por último.
+ * <p>
+ * A carga roda fora de qualquer lock do cache: antes de consultar o banco, o leitor reserva a chave com uma marca,
+ * e só troca a marca pelo saldo lido se ela ainda estiver lá. Uma invalidação concorrente remove a marca, e o saldo
+ * lido antes do commit é devolvido ao leitor mas não guardado: nunca sobrevive à invalidação desse commit.
+ * <p>
+ * As outras réplicas são avisadas pelo {@link CacheInvalidationBus} depois do commit da mutação, e as invalidações
+ * recebidas delas descartam a entrada local; o TTL limita por quanto tempo uma mensagem perdida deixaria o saldo
+ * defasado.
+ */
+@Component
+public class BalanceCache {
+    private static final Logger logger = LoggerFactory.getLogger(BalanceCache.class);
+    private final Cache<UUID, Slot> balances;
+    private final StatsCounter statsCounter = new ConcurrentStatsCounter();
+    private final CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    public BalanceCache(@Value("${wallet.balance.cache.ttl:PT30S}") Duration ttl,
+                        @Value("${wallet.balance.cache.max-size:10000}") long maxSize,
+                        Optional<CacheInvalidationBus> invalidationBus) {
+        this.balances = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats(() -> statsCounter)
+                .build();
+        this.invalidationBus = invalidationBus.orElse(CacheInvalidationBus.NONE);
+        this.invalidationBus.subscribe(balances::invalidateAll);
+    }
+
+    BalanceCache(Duration ttl, long maxSize) {
+        this(ttl, maxSize, Optional.empty());
+    }
+
+    /**
+     * @param loader consulta o saldo no banco quando a carteira não está no cache; vazio não é guardado
+     */
+    public Optional<BigDecimal> get(UUID walletId, Function<UUID, Optional<BigDecimal>> loader) {
+        ConcurrentMap<UUID, Slot> slots = balances.asMap();
+        Slot current = slots.get(walletId);
+        if (current != null && current.balance != null) {
+            statsCounter.recordHits(1);
+            return Optional.of(current.balance);
+        }
+        statsCounter.recordMisses(1);
+        // Outra carga em andamento: a marca dela serve para esta também, pois foi posta antes desta consulta
+        Slot reservation = current;
+        if (reservation == null) {
+            Slot fresh = new Slot(null);
+            Slot raced = slots.putIfAbsent(walletId, fresh);
+            if (raced != null && raced.balance != null) {
+                return Optional.of(raced.balance);
+            }
+            reservation = raced != null ? raced : fresh;
+        }
+        Optional<BigDecimal> loaded = loader.apply(walletId);
+        if (loaded.isPresent()) {
+            slots.replace(walletId, reservation, new Slot(loaded.get()));
+        } else {
+            slots.remove(walletId, reservation);
+        }
+        return loaded;
+    }
+
+    /**
+     * Só as carteiras que já estão no cache; as ausentes não são carregadas.
+     */
+    public Map<UUID, BigDecimal> getAllPresent(Collection<UUID> walletIds) {
+        Map<UUID, BigDecimal> present = new HashMap<>();
+        balances.getAllPresent(walletIds).forEach((walletId, slot) -> {
+            if (slot.balance != null) {
+                present.put(walletId, slot.balance);
+            }
+        });
+        return present;
+    }
+
+    /**
+     * Descarta as carteiras neste nó.
+     */
+    public void invalidate(Collection<UUID> walletIds) {
+        balances.invalidateAll(walletIds);
+    }
+
+    /**
+     * Avisa as outras réplicas quando a transação corrente for confirmada; se ela for desfeita, nada é publicado.
+     * Fora de transação publica na hora. Um barramento que {@link CacheInvalidationBus#joinsTransaction() grava na
+     * transação} publica já, e a falha desfaz a mutação como a do outbox. Nos demais, a falha só é registrada: a
+     * escrita já foi confirmada e não pode virar erro para o cliente.
+     */
+    public void publishOnCommit(Collection<UUID> walletIds) {
+        if (invalidationBus == CacheInvalidationBus.NONE) {
+            return;
+        }
+        if (invalidationBus.joinsTransaction()) {
+            invalidationBus.publish(walletIds);
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishSafely(walletIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishSafely(walletIds);
+            }
+        });
+    }
+
+    private void publishSafely(Collection<UUID> walletIds) {
+        try {
+            invalidationBus.publish(walletIds);
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao publicar invalidação de {} carteiras; as réplicas dependem do TTL: {}",
+                    walletIds.size(), e.getMessage());
+        }
+    }
+
+    public void invalidate(UUID walletId) {
+        invalidate(List.of(walletId));
+    }
+
+    public CacheStats stats() {
+        return balances.stats();
+    }
+
+    public double hitRate() {
+        return balances.stats().hitRate();
+    }
+
+    // Sem equals: a troca da marca pelo saldo compara identidade, e cada carga tem a sua marca
+    private static final class Slot {
+        private final BigDecimal balance;
+
+        Slot(BigDecimal balance) {
+            this.balance = balance;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.walletapp.application.service;
+
+import com.walletapp.domain.model.BalanceChangeEvent;
+
+import java.util.List;
+
+/**
+ * Destino dos eventos de alteração de saldo lidos do outbox. Cada bean do tipo recebe todos os lotes; para publicar
+ * num broker basta registrar mais uma implementação.
+ * <p>
+ * A entrega é ao menos uma vez e, por carteira, em ordem de {@code sequence}: um lote é reenviado inteiro, na mesma
+ * ordem, se algum destino falhar. O consumidor deve descartar sequências que já viu.
+ */
+public interface BalanceChangeSink {
+    /**
+     * Só deve retornar depois de aceitar o lote; uma exceção faz o relay tentar o mesmo lote de novo.
+     */
+    void publish(List<BalanceChangeEvent> events);
+}
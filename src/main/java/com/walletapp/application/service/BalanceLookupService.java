@@ -0,0 +1,81 @@
+package com.walletapp.application.service;
+
+import com.walletapp.domain.repository.WalletRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Saldos de muitas carteiras por requisição, para painéis e motores de risco. As carteiras que estão no
+ * {@link BalanceCache} saem dele; as demais vêm de uma única consulta IN sem lock, que não popula o cache
+ * (a carga em lote não teria a mesma proteção contra invalidações concorrentes que a carga por chave).
+ */
+@Service
+public class BalanceLookupService {
+    private static final Logger logger = LoggerFactory.getLogger(BalanceLookupService.class);
+    private final WalletRepository walletRepository;
+    private final BalanceCache balanceCache;
+    private final int maxIds;
+
+    public BalanceLookupService(WalletRepository walletRepository,
+                                BalanceCache balanceCache,
+                                @Value("${wallet.balance.bulk.max-ids:1000}") int maxIds) {
+        this.walletRepository = walletRepository;
+        this.balanceCache = balanceCache;
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * @return um resultado por id pedido, na mesma ordem; carteiras inexistentes vêm como {@code NOT_FOUND}
+     */
+    public List<WalletBalanceResult> retrieveBalances(List<UUID> walletIds) {
+        if (walletIds.size() > maxIds) {
+            logger.error("Consulta com {} carteiras excede o limite de {}", walletIds.size(), maxIds);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Consulta excede o limite de " + maxIds + " carteiras");
+        }
+        if (walletIds.stream().anyMatch(Objects::isNull)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Id de carteira nulo na consulta");
+        }
+        logger.debug("Consultando saldo de {} carteiras", walletIds.size());
+        Set<UUID> distinct = new LinkedHashSet<>(walletIds);
+        Map<UUID, BigDecimal> balances = new HashMap<>(balanceCache.getAllPresent(distinct));
+        distinct.removeAll(balances.keySet());
+        if (!distinct.isEmpty()) {
+            balances.putAll(walletRepository.findBalancesByIds(distinct));
+        }
+
+        List<WalletBalanceResult> results = new ArrayList<>(walletIds.size());
+        for (UUID walletId : walletIds) {
+            BigDecimal balance = balances.get(walletId);
+            results.add(balance == null ? WalletBalanceResult.notFound(walletId) : WalletBalanceResult.found(walletId, balance));
+        }
+        return results;
+    }
+
+    /**
+     * Uma página de até {@code wallet.balance.bulk.max-ids} carteiras do usuário, ordenadas por id. A próxima
+     * página começa depois do último id devolvido; uma página incompleta é a última.
+     *
+     * @param after id da última carteira da página anterior, ou nulo para a primeira
+     */
+    public List<WalletBalanceResult> retrieveBalancesByUser(UUID userId, UUID after) {
+        logger.debug("Consultando saldos das carteiras do usuário: {} (após {})", userId, after);
+        List<WalletBalanceResult> results = new ArrayList<>();
+        walletRepository.findBalancesByUserId(userId, after, maxIds)
+                .forEach((walletId, balance) -> results.add(WalletBalanceResult.found(walletId, balance)));
+        return results;
+    }
+}
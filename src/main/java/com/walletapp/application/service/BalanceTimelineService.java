@@ -0,0 +1,65 @@
+package com.walletapp.application.service;
+
+import com.walletapp.domain.exception.WalletNotFoundException;
+import com.walletapp.domain.model.BalancePoint;
+import com.walletapp.domain.model.TimelineInterval;
+import com.walletapp.domain.repository.WalletRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Saldo de fechamento por hora, dia ou mês de um período, para extratos. Em vez de um saldo histórico por ponto,
+ * cada um refazendo o ledger desde o início, o saldo de abertura é calculado uma vez e o ledger do período é lido
+ * uma única vez em ordem.
+ */
+@Service
+public class BalanceTimelineService {
+    private static final Logger logger = LoggerFactory.getLogger(BalanceTimelineService.class);
+    private final WalletRepository walletRepository;
+    private final WalletMetrics walletMetrics;
+    private final int maxBuckets;
+
+    public BalanceTimelineService(WalletRepository walletRepository,
+                                  WalletMetrics walletMetrics,
+                                  @Value("${wallet.timeline.max-buckets:1000}") int maxBuckets) {
+        this.walletRepository = walletRepository;
+        this.walletMetrics = walletMetrics;
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * @return um ponto por intervalo, do que contém {@code from} ao que contém o último instante antes de {@code to}
+     */
+    public List<BalancePoint> retrieveBalanceTimeline(UUID walletId, String from, String to, TimelineInterval interval) {
+        logger.debug("Consultando linha do tempo de saldo da carteira: {} de {} a {} por {}", walletId, from, to, interval);
+
+        return walletMetrics.record("timeline", () -> {
+            LocalDateTime start = WalletService.parseDateTime(from);
+            LocalDateTime end = WalletService.parseDateTime(to);
+            if (!start.isBefore(end)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O início do período deve ser anterior ao fim");
+            }
+            LocalDateTime first = interval.truncate(start);
+            int buckets = 0;
+            for (LocalDateTime bucket = first; bucket.isBefore(end); bucket = interval.next(bucket)) {
+                if (++buckets > maxBuckets) {
+                    logger.error("Linha do tempo de {} a {} por {} excede o limite de {} intervalos", from, to, interval, maxBuckets);
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Consulta excede o limite de " + maxBuckets + " intervalos");
+                }
+            }
+
+            walletRepository.findBalanceById(walletId)
+                    .orElseThrow(() -> new WalletNotFoundException(walletId));
+
+            return walletRepository.getBalanceTimeline(walletId, first, end, interval);
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package com.walletapp.application.service;
+
+import java.util.UUID;
+
+public record BatchItemResult(UUID idempotencyKey, Status status) {
+    public enum Status {
+        APPLIED,
+        DUPLICATE,
+        // Chave já usada na carteira com outro tipo ou valor, ou só na carteira de destino de uma transferência
+        CONFLICT,
+        WALLET_NOT_FOUND,
+        INSUFFICIENT_FUNDS,
+        INVALID
+    }
+}
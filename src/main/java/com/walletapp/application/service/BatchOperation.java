@@ -0,0 +1,44 @@
+package com.walletapp.application.service;
+
+import com.walletapp.domain.model.MinorUnits;
+import com.walletapp.domain.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Item de um lote de operações. {@code toWalletId} só é usado em transferências, em que {@code walletId}
+ * é a carteira de origem; a chave de idempotência é escopada por {@code walletId}, como nas chamadas avulsas.
+ */
+public record BatchOperation(
+        Type type,
+        UUID walletId,
+        UUID toWalletId,
+        BigDecimal amount,
+        UUID idempotencyKey
+) {
+    public enum Type {
+        DEPOSIT,
+        WITHDRAWAL,
+        TRANSFER
+    }
+
+    /**
+     * Tipo da linha que o item grava no ledger de {@code walletId}.
+     */
+    TransactionType ledgerType() {
+        return switch (type) {
+            case DEPOSIT -> TransactionType.DEPOSIT;
+            case WITHDRAWAL -> TransactionType.WITHDRAWAL;
+            case TRANSFER -> TransactionType.TRANSFER_SENT;
+        };
+    }
+
+    boolean isValid() {
+        if (type == null || walletId == null || idempotencyKey == null
+                || amount == null || amount.compareTo(BigDecimal.ZERO) <= 0 || !MinorUnits.hasValidScale(amount)) {
+            return false;
+        }
+        return type != Type.TRANSFER || (toWalletId != null && !toWalletId.equals(walletId));
+    }
+}
@@ -0,0 +1,263 @@
+package com.walletapp.application.service;
+
+import com.walletapp.application.service.BatchItemResult.Status;
+import com.walletapp.domain.exception.DuplicateOperationException;
+import com.walletapp.domain.model.BalanceChangeEvent;
+import com.walletapp.domain.model.MinorUnits;
+import com.walletapp.domain.model.ProcessedOperation;
+import com.walletapp.domain.model.Transaction;
+import com.walletapp.domain.model.TransactionType;
+import com.walletapp.domain.model.Wallet;
+import com.walletapp.domain.repository.OutboxRepository;
+import com.walletapp.domain.repository.WalletRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Aplica lotes de depósitos, saques e transferências (folha de pagamento, cashback) sem o custo de uma
+ * transação por item. O lote é dividido em blocos de {@code wallet.batch.chunk-size} itens; cada bloco roda
+ * numa transação que trava todas as suas carteiras num único SELECT ... FOR UPDATE ordenado por id, verifica
+ * as chaves de idempotência numa única consulta e grava o ledger num único flush, enviado em lotes JDBC.
+ * <p>
+ * Um item rejeitado não desfaz os demais: cada um recebe seu próprio {@link Status}.
+ */
+@Service
+public class BatchOperationService {
+    private static final Logger logger = LoggerFactory.getLogger(BatchOperationService.class);
+    private final WalletRepository walletRepository;
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrencyRetry concurrencyRetry;
+    private final IdempotencyCache idempotencyCache;
+    private final BalanceCache balanceCache;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public BatchOperationService(WalletRepository walletRepository,
+                                 OutboxRepository outboxRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 ConcurrencyRetry concurrencyRetry,
+                                 IdempotencyCache idempotencyCache,
+                                 BalanceCache balanceCache,
+                                 @Value("${wallet.batch.chunk-size:500}") int chunkSize,
+                                 @Value("${wallet.batch.max-items:10000}") int maxItems) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("wallet.batch.chunk-size deve ser positivo");
+        }
+        this.walletRepository = walletRepository;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.concurrencyRetry = concurrencyRetry;
+        this.idempotencyCache = idempotencyCache;
+        this.balanceCache = balanceCache;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    public List<BatchItemResult> execute(List<BatchOperation> operations) {
+        if (operations.size() > maxItems) {
+            logger.error("Lote com {} operações excede o limite de {}", operations.size(), maxItems);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lote excede o limite de " + maxItems + " operações");
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Processando lote de {} operações", operations.size());
+        }
+        List<BatchItemResult> results = new ArrayList<>(operations.size());
+        for (int from = 0; from < operations.size(); from += chunkSize) {
+            results.addAll(executeChunk(operations.subList(from, Math.min(operations.size(), from + chunkSize))));
+        }
+        return results;
+    }
+
+    /**
+     * Aplica um bloco numa única transação e devolve o resultado de cada item, na ordem recebida. Também usado
+     * pela {@link WalletWriteQueue}.
+     */
+    List<BatchItemResult> executeChunk(List<BatchOperation> chunk) {
+        ChunkResult results;
+        try {
+            results = applyUntilNoDuplicate(chunk);
+        } finally {
+            balanceCache.invalidate(touchedWallets(chunk));
+        }
+        // Só depois do commit, como nas chamadas avulsas. Itens DUPLICATE não entram: o cache guarda o resultado
+        // da operação original, que o bloco não leu
+        results.applied().forEach(applied -> idempotencyCache.markProcessed(applied.idempotencyKey(), applied.operation()));
+        return results.items();
+    }
+
+    // Uma chamada concorrente pode gravar uma das chaves entre a consulta e o flush; o bloco é desfeito e,
+    // reexecutado, enxerga a chave como processada. Cada falha tira ao menos uma chave do bloco, então o número
+    // de tentativas é limitado pelo tamanho dele
+    private ChunkResult applyUntilNoDuplicate(List<BatchOperation> chunk) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return applyInTransaction(chunk);
+            } catch (DuplicateOperationException e) {
+                if (attempt > chunk.size()) {
+                    logger.error("Bloco de {} operações ainda colide após {} tentativas", chunk.size(), attempt);
+                    throw e;
+                }
+                logger.warn("Chave de idempotência gravada concorrentemente (tentativa {}); reprocessando bloco de {} operações",
+                        attempt, chunk.size());
+            }
+        }
+    }
+
+    private static Set<UUID> touchedWallets(List<BatchOperation> chunk) {
+        Set<UUID> walletIds = new HashSet<>();
+        for (BatchOperation operation : chunk) {
+            if (operation.walletId() != null) {
+                walletIds.add(operation.walletId());
+            }
+            if (operation.toWalletId() != null) {
+                walletIds.add(operation.toWalletId());
+            }
+        }
+        return walletIds;
+    }
+
+    private ChunkResult applyInTransaction(List<BatchOperation> chunk) {
+        return concurrencyRetry.execute(() -> transactionTemplate.execute(status -> apply(chunk)));
+    }
+
+    private ChunkResult apply(List<BatchOperation> chunk) {
+        Status[] statuses = new Status[chunk.size()];
+        Set<UUID> walletIds = new HashSet<>();
+        Set<UUID> idempotencyKeys = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            BatchOperation operation = chunk.get(i);
+            if (!operation.isValid()) {
+                statuses[i] = Status.INVALID;
+                continue;
+            }
+            Optional<ProcessedOperation> cached = idempotencyCache.find(operation.idempotencyKey(), operation.walletId());
+            if (cached.isPresent()) {
+                statuses[i] = replayStatus(cached.get(), operation);
+                continue;
+            }
+            walletIds.add(operation.walletId());
+            if (operation.type() == BatchOperation.Type.TRANSFER) {
+                walletIds.add(operation.toWalletId());
+            }
+            idempotencyKeys.add(operation.idempotencyKey());
+        }
+
+        Map<UUID, Wallet> wallets = walletIds.isEmpty() ? Map.of() : walletRepository.findAllByIdForUpdate(walletIds);
+        Map<UUID, Map<UUID, ProcessedOperation>> processed = new HashMap<>();
+        if (!idempotencyKeys.isEmpty()) {
+            walletRepository.findProcessedOperations(idempotencyKeys)
+                    .forEach((key, operations) -> processed.put(key, new HashMap<>(operations)));
+        }
+
+        List<Transaction> ledger = new ArrayList<>();
+        List<BalanceChangeEvent> events = new ArrayList<>();
+        Map<UUID, Wallet> changed = new LinkedHashMap<>();
+        List<AppliedItem> applied = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (statuses[i] == null) {
+                statuses[i] = applyItem(chunk.get(i), wallets, processed, ledger, events, changed, applied);
+            }
+        }
+
+        if (!ledger.isEmpty()) {
+            walletRepository.recordTransactions(ledger);
+        }
+        changed.values().forEach(walletRepository::save);
+        if (!events.isEmpty()) {
+            outboxRepository.append(events);
+            balanceCache.publishOnCommit(List.copyOf(changed.keySet()));
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(new BatchItemResult(chunk.get(i).idempotencyKey(), statuses[i]));
+        }
+        return new ChunkResult(results, applied);
+    }
+
+    private Status applyItem(BatchOperation operation, Map<UUID, Wallet> wallets, Map<UUID, Map<UUID, ProcessedOperation>> processed,
+                             List<Transaction> ledger, List<BalanceChangeEvent> events, Map<UUID, Wallet> changed,
+                             List<AppliedItem> applied) {
+        Wallet wallet = wallets.get(operation.walletId());
+        Wallet toWallet = operation.type() == BatchOperation.Type.TRANSFER ? wallets.get(operation.toWalletId()) : null;
+        if (wallet == null || (operation.type() == BatchOperation.Type.TRANSFER && toWallet == null)) {
+            return Status.WALLET_NOT_FOUND;
+        }
+        Map<UUID, ProcessedOperation> processedWallets = processed.computeIfAbsent(operation.idempotencyKey(), key -> new HashMap<>());
+        ProcessedOperation original = processedWallets.get(wallet.getId());
+        if (original != null) {
+            return replayStatus(original, operation);
+        }
+        // Na transferência a chave também é gravada na carteira de destino, e lá não pode se repetir
+        if (toWallet != null && processedWallets.containsKey(toWallet.getId())) {
+            return Status.CONFLICT;
+        }
+        long amountMinor = MinorUnits.of(operation.amount());
+        if (operation.type() != BatchOperation.Type.DEPOSIT && wallet.getBalanceMinor() < amountMinor) {
+            return Status.INSUFFICIENT_FUNDS;
+        }
+
+        // O evento leva o saldo logo após o item, não o do fim do bloco
+        Transaction origin = switch (operation.type()) {
+            case DEPOSIT -> {
+                wallet.deposit(amountMinor);
+                yield record(new Transaction(wallet.getId(), operation.amount(), TransactionType.DEPOSIT, operation.idempotencyKey()),
+                        wallet, ledger, events);
+            }
+            case WITHDRAWAL -> {
+                wallet.withdraw(amountMinor);
+                yield record(new Transaction(wallet.getId(), operation.amount(), TransactionType.WITHDRAWAL, operation.idempotencyKey()),
+                        wallet, ledger, events);
+            }
+            case TRANSFER -> {
+                wallet.withdraw(amountMinor);
+                toWallet.deposit(amountMinor);
+                Transaction sent = record(new Transaction(wallet.getId(), operation.amount(), TransactionType.TRANSFER_SENT,
+                        operation.idempotencyKey()), wallet, ledger, events);
+                Transaction received = record(new Transaction(toWallet.getId(), operation.amount(), TransactionType.TRANSFER_RECEIVED,
+                        operation.idempotencyKey()), toWallet, ledger, events);
+                changed.put(toWallet.getId(), toWallet);
+                processedWallets.put(toWallet.getId(), ProcessedOperation.of(received));
+                yield sent;
+            }
+        };
+        changed.put(wallet.getId(), wallet);
+        ProcessedOperation processedOperation = ProcessedOperation.of(origin);
+        processedWallets.put(wallet.getId(), processedOperation);
+        applied.add(new AppliedItem(operation.idempotencyKey(), processedOperation));
+        return Status.APPLIED;
+    }
+
+    // Como nas chamadas avulsas: a repetição só é DUPLICATE se pedir a mesma operação que a chave gravou
+    private static Status replayStatus(ProcessedOperation original, BatchOperation operation) {
+        return original.matches(operation.ledgerType(), operation.amount()) ? Status.DUPLICATE : Status.CONFLICT;
+    }
+
+    private static Transaction record(Transaction transaction, Wallet wallet, List<Transaction> ledger, List<BalanceChangeEvent> events) {
+        ledger.add(transaction);
+        events.add(BalanceChangeEvent.of(transaction, wallet.getBalance()));
+        return transaction;
+    }
+
+    private record AppliedItem(UUID idempotencyKey, ProcessedOperation operation) {
+    }
+
+    private record ChunkResult(List<BatchItemResult> items, List<AppliedItem> applied) {
+    }
+}
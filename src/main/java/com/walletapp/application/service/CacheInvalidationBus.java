@@ -0,0 +1,41 @@
+package com.walletapp.application.service;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Difunde para as outras réplicas as carteiras alteradas, para que descartem o que têm em cache
+ * ({@code wallet.invalidation.bus}). A entrega é ao menos uma vez: o receptor deve tolerar repetições.
+ */
+public interface CacheInvalidationBus {
+    /** Usado quando não há outras réplicas ({@code wallet.invalidation.bus=none}). */
+    CacheInvalidationBus NONE = new CacheInvalidationBus() {
+        @Override
+        public void publish(Collection<UUID> walletIds) {
+        }
+
+        @Override
+        public void subscribe(Consumer<Collection<UUID>> listener) {
+        }
+    };
+
+    /**
+     * Chamado depois do commit da transação que alterou as carteiras, nunca para uma transação desfeita; se
+     * {@link #joinsTransaction()}, chamado dentro dela.
+     */
+    void publish(Collection<UUID> walletIds);
+
+    /**
+     * Verdadeiro quando a publicação é gravada na transação da mutação e só fica visível com o commit dela, sem
+     * transação própria.
+     */
+    default boolean joinsTransaction() {
+        return false;
+    }
+
+    /**
+     * Registra quem recebe as invalidações publicadas pelas outras réplicas.
+     */
+    void subscribe(Consumer<Collection<UUID>> listener);
+}
@@ -0,0 +1,67 @@
+package com.walletapp.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Reexecuta uma transação abortada por timeout de lock, deadlock ou conflito de versão, com backoff
+ * exponencial e jitter para que as transações concorrentes não voltem a colidir no mesmo instante.
+ * A operação deve abrir sua própria transação, já que a anterior foi desfeita.
+ */
+@Component
+public class ConcurrencyRetry {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyRetry.class);
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public ConcurrencyRetry(@Value("${wallet.retry.max-attempts:5}") int maxAttempts,
+                            @Value("${wallet.retry.base-delay-ms:10}") long baseDelayMillis,
+                            @Value("${wallet.retry.max-delay-ms:200}") long maxDelayMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("wallet.retry.max-attempts deve ser ao menos 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public <T> T execute(Supplier<T> operation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.get();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    logger.error("Conflito de concorrência persistiu após {} tentativas", attempt);
+                    throw e;
+                }
+                logger.warn("Conflito de concorrência (tentativa {}/{}): {}", attempt, maxAttempts, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void run(Runnable operation) {
+        execute(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando nova tentativa", e);
+        }
+    }
+}
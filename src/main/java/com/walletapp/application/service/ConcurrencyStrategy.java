@@ -0,0 +1,23 @@
+package com.walletapp.application.service;
+
+/**
+ * Como depósitos e saques isolam alterações concorrentes na mesma carteira
+ * ({@code wallet.concurrency.strategy}).
+ */
+public enum ConcurrencyStrategy {
+    /** Trava a linha da carteira ({@code SELECT ... FOR UPDATE}) durante toda a transação. */
+    PESSIMISTIC,
+    /** Lê sem lock e grava com {@code UPDATE ... WHERE version = ?}, repetindo em caso de conflito. */
+    OPTIMISTIC,
+    /**
+     * Altera o saldo num único {@code UPDATE ... SET balance = balance + :amount}, sem ler a carteira;
+     * saques só são aplicados se {@code balance >= :amount}.
+     */
+    ATOMIC,
+    /**
+     * Encaminha depósitos, saques e transferências para a fila de escrita da carteira ({@link WalletWriteQueue}),
+     * que aplica as operações pendentes de uma vez: um UPDATE de saldo por carteira e os INSERTs do ledger em
+     * lote por commit.
+     */
+    QUEUED
+}
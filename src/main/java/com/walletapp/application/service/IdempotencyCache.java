@@ -0,0 +1,81 @@
+package com.walletapp.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.walletapp.domain.model.ProcessedOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Guarda em memória o resultado confirmado de cada chave de idempotência (tipo, valor e transação gravada), para
+ * que as repetições dos clientes sejam conferidas e respondidas sem ir ao banco. A chave é escopada pela carteira,
+ * como o índice único do ledger, e só entra no cache depois do commit: uma operação desfeita nunca é registrada
+ * como processada.
+ * <p>
+ * O cache é apenas um atalho; uma chave expirada ou despejada volta a ser barrada pelo índice único.
+ */
+@Component
+public class IdempotencyCache {
+    private final Cache<Key, ProcessedOperation> processed;
+
+    @Autowired
+    public IdempotencyCache(@Value("${wallet.idempotency.cache.ttl:PT10M}") Duration ttl,
+                            @Value("${wallet.idempotency.cache.max-size:100000}") long maxSize) {
+        this(ttl, maxSize, Ticker.systemTicker(), null);
+    }
+
+    IdempotencyCache(Duration ttl, long maxSize, Ticker ticker, Executor executor) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .ticker(ticker)
+                .recordStats();
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        this.processed = builder.build();
+    }
+
+    /**
+     * @return o resultado da operação original, se a chave ainda estiver no cache
+     */
+    public Optional<ProcessedOperation> find(UUID idempotencyKey, UUID walletId) {
+        return Optional.ofNullable(processed.getIfPresent(new Key(idempotencyKey, walletId)));
+    }
+
+    public void markProcessed(UUID idempotencyKey, ProcessedOperation operation) {
+        processed.put(new Key(idempotencyKey, operation.walletId()), operation);
+    }
+
+    public CacheStats stats() {
+        return processed.stats();
+    }
+
+    public long hitCount() {
+        return processed.stats().hitCount();
+    }
+
+    public long missCount() {
+        return processed.stats().missCount();
+    }
+
+    public long evictionCount() {
+        return processed.stats().evictionCount();
+    }
+
+    long estimatedSize() {
+        processed.cleanUp();
+        return processed.estimatedSize();
+    }
+
+    private record Key(UUID idempotencyKey, UUID walletId) {
+    }
+}
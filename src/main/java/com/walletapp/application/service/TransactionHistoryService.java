@@ -0,0 +1,60 @@
+package com.walletapp.application.service;
+
+import com.walletapp.domain.exception.WalletNotFoundException;
+import com.walletapp.domain.model.Transaction;
+import com.walletapp.domain.model.TransactionCursor;
+import com.walletapp.domain.model.TransactionPage;
+import com.walletapp.domain.repository.TransactionHistoryRepository;
+import com.walletapp.domain.repository.WalletRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Service
+public class TransactionHistoryService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionHistoryService.class);
+    private final TransactionHistoryRepository transactionHistoryRepository;
+    private final WalletRepository walletRepository;
+    private final int maxPageSize;
+
+    public TransactionHistoryService(TransactionHistoryRepository transactionHistoryRepository,
+                                     WalletRepository walletRepository,
+                                     @Value("${wallet.history.max-page-size:500}") int maxPageSize) {
+        this.transactionHistoryRepository = transactionHistoryRepository;
+        this.walletRepository = walletRepository;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public TransactionPage retrieveTransactions(UUID walletId, String cursor, int limit) {
+        logger.debug("Consultando extrato da carteira: {} (cursor: {}, limite: {})", walletId, cursor, limit);
+        ensureWalletExists(walletId);
+        TransactionCursor after = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+
+        List<Transaction> transactions = transactionHistoryRepository.findPage(walletId, after, pageSize);
+        String nextCursor = transactions.size() < pageSize
+                ? null
+                : TransactionCursor.after(transactions.get(transactions.size() - 1)).encode();
+        return new TransactionPage(transactions, nextCursor);
+    }
+
+    /**
+     * Entrega o ledger inteiro da carteira ao {@code consumer}, em memória constante.
+     */
+    public void exportTransactions(UUID walletId, Consumer<Transaction> consumer) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Exportando extrato da carteira: {}", walletId);
+        }
+        transactionHistoryRepository.forEach(walletId, consumer);
+    }
+
+    public void ensureWalletExists(UUID walletId) {
+        walletRepository.findBalanceById(walletId)
+                .orElseThrow(() -> new WalletNotFoundException(walletId));
+    }
+}
@@ -0,0 +1,22 @@
+package com.walletapp.application.service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Saldo de uma carteira numa consulta em lote; {@code balance} é null quando a carteira não existe.
+ */
+public record WalletBalanceResult(UUID walletId, Status status, BigDecimal balance) {
+    public enum Status {
+        FOUND,
+        NOT_FOUND
+    }
+
+    static WalletBalanceResult found(UUID walletId, BigDecimal balance) {
+        return new WalletBalanceResult(walletId, Status.FOUND, balance);
+    }
+
+    static WalletBalanceResult notFound(UUID walletId) {
+        return new WalletBalanceResult(walletId, Status.NOT_FOUND, null);
+    }
+}
@@ -0,0 +1,152 @@
+package com.walletapp.application.service;
+
+import com.walletapp.domain.exception.InsufficientFundsException;
+import com.walletapp.domain.model.BalanceChangeEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Métricas das operações de carteira, expostas em /actuator/prometheus:
+ * <ul>
+ *     <li>{@code wallet.operation}: latência por operação e resultado (success/error), com histograma para p99;</li>
+ *     <li>{@code wallet.operation.errors}: falhas por operação e tipo de exceção;</li>
+ *     <li>{@code wallet.insufficient.funds}: saques e transferências recusados por saldo;</li>
+ *     <li>{@code wallet.idempotent.hits}: repetições respondidas como já processadas, pelo cache ou pelo banco;</li>
+ *     <li>{@code wallet.repository}: latência de cada método do repositório;</li>
+ *     <li>{@code wallet.lock.wait}: espera pelo lock das carteiras, amostrada (ver {@link #lockingQuery});</li>
+ *     <li>{@code wallet.outbox.*}: eventos publicados pelo relay do outbox, falhas, atraso entre a mutação e a
+ *     publicação, e eventos pendentes.</li>
+ * </ul>
+ */
+@Component
+public class WalletMetrics {
+    private final MeterRegistry registry;
+    // Timer.builder(...).register(...) monta o id e consulta o registro a cada chamada; no caminho quente o
+    // timer sai daqui, criado uma vez por nome e tags
+    private final Map<List<String>, Timer> timers = new ConcurrentHashMap<>();
+    private final int lockWaitSampleEvery;
+
+    @Autowired
+    public WalletMetrics(MeterRegistry registry,
+                         @Value("${wallet.metrics.lock-wait.sample-every:100}") int lockWaitSampleEvery) {
+        if (lockWaitSampleEvery < 0) {
+            throw new IllegalArgumentException("wallet.metrics.lock-wait.sample-every não pode ser negativo");
+        }
+        this.registry = registry;
+        this.lockWaitSampleEvery = lockWaitSampleEvery;
+    }
+
+    public WalletMetrics(MeterRegistry registry) {
+        this(registry, 100);
+    }
+
+    public <T> T record(String operation, Supplier<T> action) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            registry.counter("wallet.operation.errors", "operation", operation, "exception", e.getClass().getSimpleName())
+                    .increment();
+            if (e instanceof InsufficientFundsException) {
+                registry.counter("wallet.insufficient.funds", "operation", operation).increment();
+            }
+            throw e;
+        } finally {
+            sample.stop(histogram("wallet.operation", "operation", operation, "outcome", outcome));
+        }
+    }
+
+    public void record(String operation, Runnable action) {
+        record(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * @param source {@code cache} se a repetição foi barrada pelo {@link IdempotencyCache}, {@code database} se pelo índice único
+     */
+    public void idempotentHit(String operation, String source) {
+        registry.counter("wallet.idempotent.hits", "operation", operation, "source", source).increment();
+    }
+
+    public <T> T repository(String method, Supplier<T> call) {
+        return histogram("wallet.repository", "method", method).record(call);
+    }
+
+    public void repository(String method, Runnable call) {
+        histogram("wallet.repository", "method", method).record(call);
+    }
+
+    /**
+     * Roda a consulta que trava carteiras. Uma em cada {@code wallet.metrics.lock-wait.sample-every} chamadas
+     * (0 desliga) roda antes {@code unlockedProbe}, a mesma leitura das mesmas linhas sem lock, e registra em
+     * {@code wallet.lock.wait} quanto a consulta com lock demorou a mais: a espera pelo lock, sem o custo da leitura.
+     * A sonda custa uma consulta por chamada amostrada e não trava nada, então não altera a ordem dos locks.
+     */
+    public <T> T lockingQuery(String method, Runnable unlockedProbe, Supplier<T> query) {
+        if (lockWaitSampleEvery == 0 || ThreadLocalRandom.current().nextInt(lockWaitSampleEvery) != 0) {
+            return query.get();
+        }
+        long start = System.nanoTime();
+        unlockedProbe.run();
+        long unlocked = System.nanoTime() - start;
+        start = System.nanoTime();
+        try {
+            return query.get();
+        } finally {
+            long locked = System.nanoTime() - start;
+            histogram("wallet.lock.wait", "method", method).record(Duration.ofNanos(Math.max(0, locked - unlocked)));
+        }
+    }
+
+    /**
+     * @param publishNanos tempo da entrega do lote a todos os destinos
+     */
+    public void outboxPublished(List<BalanceChangeEvent> events, long publishNanos) {
+        registry.counter("wallet.outbox.published").increment(events.size());
+        histogram("wallet.outbox.publish").record(Duration.ofNanos(publishNanos));
+        Timer lag = histogram("wallet.outbox.lag");
+        LocalDateTime now = LocalDateTime.now();
+        for (BalanceChangeEvent event : events) {
+            lag.record(Duration.between(event.occurredAt(), now));
+        }
+    }
+
+    public void outboxFailure() {
+        registry.counter("wallet.outbox.failures").increment();
+    }
+
+    /**
+     * @param pending consultado a cada coleta das métricas, não a cada lote
+     */
+    public void outboxPending(Supplier<Number> pending) {
+        Gauge.builder("wallet.outbox.pending", pending).register(registry);
+    }
+
+    private Timer histogram(String name, String... tags) {
+        List<String> key = new ArrayList<>(tags.length + 1);
+        key.add(name);
+        key.addAll(Arrays.asList(tags));
+        return timers.computeIfAbsent(key, ignored -> Timer.builder(name)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+}
@@ -0,0 +1,47 @@
+package com.walletapp.application.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publica as estatísticas que os caches e a fila de escrita já mantêm, lidas só quando o registry é coletado.
+ */
+@Component
+public class WalletMetricsBinder implements MeterBinder {
+    private final IdempotencyCache idempotencyCache;
+    private final BalanceCache balanceCache;
+    private final WalletWriteQueue walletWriteQueue;
+
+    public WalletMetricsBinder(IdempotencyCache idempotencyCache, BalanceCache balanceCache, WalletWriteQueue walletWriteQueue) {
+        this.idempotencyCache = idempotencyCache;
+        this.balanceCache = balanceCache;
+        this.walletWriteQueue = walletWriteQueue;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", idempotencyCache, IdempotencyCache::hitCount)
+                .tags("cache", "idempotency", "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", idempotencyCache, IdempotencyCache::missCount)
+                .tags("cache", "idempotency", "result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", idempotencyCache, IdempotencyCache::evictionCount)
+                .tags("cache", "idempotency").register(registry);
+
+        FunctionCounter.builder("cache.gets", balanceCache, cache -> cache.stats().hitCount())
+                .tags("cache", "balance", "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", balanceCache, cache -> cache.stats().missCount())
+                .tags("cache", "balance", "result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", balanceCache, cache -> cache.stats().evictionCount())
+                .tags("cache", "balance").register(registry);
+
+        FunctionCounter.builder("wallet.queue.batches", walletWriteQueue, queue -> queue.stats().batches())
+                .register(registry);
+        FunctionCounter.builder("wallet.queue.operations", walletWriteQueue, queue -> queue.stats().operations())
+                .register(registry);
+        Gauge.builder("wallet.queue.commit.average", walletWriteQueue, queue -> queue.stats().averageCommitMillis())
+                .baseUnit("milliseconds").register(registry);
+    }
+}
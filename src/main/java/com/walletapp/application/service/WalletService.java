@@ -1,135 +1,438 @@
 package com.walletapp.application.service;
 
+import com.walletapp.domain.exception.DuplicateOperationException;
+import com.walletapp.domain.exception.IdempotencyKeyConflictException;
 import com.walletapp.domain.exception.InvalidDateFormatException;
 import com.walletapp.domain.exception.WalletNotFoundException;
+import com.walletapp.domain.model.BalanceChangeEvent;
+import com.walletapp.domain.model.MinorUnits;
+import com.walletapp.domain.model.ProcessedOperation;
 import com.walletapp.domain.model.Transaction;
 import com.walletapp.domain.model.TransactionType;
 import com.walletapp.domain.model.Wallet;
+import com.walletapp.domain.repository.OutboxRepository;
 import com.walletapp.domain.repository.WalletRepository;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
 public class WalletService {
     private static final Logger logger = LoggerFactory.getLogger(WalletService.class);
+    // Imutável e thread-safe: montado uma vez em vez de a cada consulta de saldo histórico
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd[ HH:mm:ss]['T'HH:mm:ss]");
     private final WalletRepository walletRepository;
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrencyRetry concurrencyRetry;
+    private final ConcurrencyStrategy concurrencyStrategy;
+    private final IdempotencyCache idempotencyCache;
+    private final WalletWriteQueue walletWriteQueue;
+    private final Duration queueTimeout;
+    private final BalanceCache balanceCache;
+    private final WalletMetrics walletMetrics;
 
-    public WalletService(WalletRepository walletRepository) {
+    public WalletService(WalletRepository walletRepository,
+                         OutboxRepository outboxRepository,
+                         TransactionTemplate transactionTemplate,
+                         ConcurrencyRetry concurrencyRetry,
+                         @Value("${wallet.concurrency.strategy:PESSIMISTIC}") ConcurrencyStrategy concurrencyStrategy,
+                         IdempotencyCache idempotencyCache,
+                         WalletWriteQueue walletWriteQueue,
+                         @Value("${wallet.queue.timeout:PT30S}") Duration queueTimeout,
+                         BalanceCache balanceCache,
+                         WalletMetrics walletMetrics) {
         this.walletRepository = walletRepository;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.concurrencyRetry = concurrencyRetry;
+        this.concurrencyStrategy = concurrencyStrategy;
+        this.idempotencyCache = idempotencyCache;
+        this.walletWriteQueue = walletWriteQueue;
+        this.queueTimeout = queueTimeout;
+        this.balanceCache = balanceCache;
+        this.walletMetrics = walletMetrics;
     }
 
     @Transactional
     public UUID createWallet(UUID userId) {
-        logger.info("Criando carteira para userId: {}", userId);
-        Wallet wallet = new Wallet(userId);
-        Wallet savedWallet = walletRepository.save(wallet);
-        logger.debug("Carteira criada com ID: {}", savedWallet.getId());
-        return savedWallet.getId();
+        logger.debug("Criando carteira para userId: {}", userId);
+        return walletMetrics.record("create", () -> {
+            Wallet wallet = new Wallet(userId);
+            Wallet savedWallet = walletRepository.save(wallet);
+            logger.debug("Carteira criada com ID: {}", savedWallet.getId());
+            return savedWallet.getId();
+        });
     }
 
     public BigDecimal retrieveBalance(UUID walletId) {
         logger.debug("Consultando saldo da carteira: {}", walletId);
-        Wallet wallet = walletRepository.findById(walletId)
+        return walletMetrics.record("balance", () -> balanceCache.get(walletId, walletRepository::findBalanceById)
                 .orElseThrow(() -> {
                     logger.error("Carteira não encontrada: {}", walletId);
                     return new ResponseStatusException(HttpStatus.NOT_FOUND, "Carteira não encontrada");
-                });
-        return wallet.getBalance();
+                }));
     }
 
     public BigDecimal retrieveHistoricalBalance(UUID walletId, String dateTime) {
-        logger.info("Consultando saldo histórico da carteira: {} em {}", walletId, dateTime);
+        logger.debug("Consultando saldo histórico da carteira: {} em {}", walletId, dateTime);
 
-        LocalDateTime at;
+        return walletMetrics.record("historical", () -> {
+            LocalDateTime at = parseDateTime(dateTime);
+
+            walletRepository.findBalanceById(walletId)
+                    .orElseThrow(() -> new WalletNotFoundException(walletId));
+
+            return walletRepository.getHistoricalBalance(walletId, at);
+        });
+    }
+
+    static LocalDateTime parseDateTime(String dateTime) {
         try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd[ HH:mm:ss][\'T\'HH:mm:ss]");
-            at = LocalDateTime.parse(dateTime, formatter);
+            return LocalDateTime.parse(dateTime, DATE_TIME_FORMATTER);
         } catch (DateTimeParseException e) {
             logger.error("Formato de data inválido: {}. Use o formato 'yyyy-MM-dd HH:mm:ss' ou 'yyyy-MM-ddTHH:mm:ss'", dateTime);
             throw new InvalidDateFormatException("Formato de data inválido. Use 'yyyy-MM-dd HH:mm:ss' ou 'yyyy-MM-ddTHH:mm:ss'");
         }
+    }
 
-        walletRepository.findById(walletId)
-                .orElseThrow(() -> new WalletNotFoundException(walletId));
+    /**
+     * @return {@code false} se a chave já tinha sido processada: a resposta é a da primeira chamada
+     * @throws IdempotencyKeyConflictException se a chave foi usada por outra operação
+     */
+    public boolean depositFunds(UUID walletId, BigDecimal amount, UUID idempotencyKey) {
+        // Linha por requisição só em DEBUG; o guard evita o array de varargs quando desligado
+        if (logger.isDebugEnabled()) {
+            logger.debug("Depositando {} na carteira: {} (idempotencyKey: {})", amount, walletId, idempotencyKey);
+        }
+        boolean applied = walletMetrics.record("deposit", () -> {
+            try {
+                if (concurrencyStrategy == ConcurrencyStrategy.QUEUED) {
+                    Wallet.validateDepositAmount(amount);
+                    return inWriteQueue("deposit", new BatchOperation(BatchOperation.Type.DEPOSIT, walletId, null, amount, idempotencyKey));
+                }
+                return inIdempotentTransaction("deposit", idempotencyKey, walletId, TransactionType.DEPOSIT, amount,
+                        () -> applyDeposit(walletId, amount, idempotencyKey));
+            } finally {
+                // Depois do commit ou do rollback, antes de responder: garante read-your-writes neste nó
+                balanceCache.invalidate(walletId);
+            }
+        });
+        if (applied) {
+            logger.debug("Depósito concluído para carteira: {}", walletId);
+        }
+        return applied;
+    }
 
-        return walletRepository.getHistoricalBalance(walletId, at);
+    /**
+     * @return {@code false} se a chave já tinha sido processada: a resposta é a da primeira chamada
+     * @throws IdempotencyKeyConflictException se a chave foi usada por outra operação
+     */
+    public boolean withdrawFunds(UUID walletId, BigDecimal amount, UUID idempotencyKey) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Sacando {} da carteira: {} (idempotencyKey: {})", amount, walletId, idempotencyKey);
+        }
+        boolean applied = walletMetrics.record("withdrawal", () -> {
+            try {
+                if (concurrencyStrategy == ConcurrencyStrategy.QUEUED) {
+                    Wallet.validateWithdrawalAmount(amount);
+                    return inWriteQueue("withdrawal", new BatchOperation(BatchOperation.Type.WITHDRAWAL, walletId, null, amount, idempotencyKey));
+                }
+                return inIdempotentTransaction("withdrawal", idempotencyKey, walletId, TransactionType.WITHDRAWAL, amount,
+                        () -> applyWithdrawal(walletId, amount, idempotencyKey));
+            } finally {
+                balanceCache.invalidate(walletId);
+            }
+        });
+        if (applied) {
+            logger.debug("Saque concluído para carteira: {}", walletId);
+        }
+        return applied;
     }
 
-    @Transactional
-    public void depositFunds(UUID walletId, BigDecimal amount, UUID idempotencyKey) {
-        logger.info("Depositando {} na carteira: {} (idempotencyKey: {})", amount, walletId, idempotencyKey);
-        if (walletRepository.hasProcessed(idempotencyKey)) {
-            logger.info("Operação já processada com idempotencyKey: {}", idempotencyKey);
-            return;
+    /**
+     * @return {@code false} se a chave já tinha sido processada: a resposta é a da primeira chamada
+     * @throws IdempotencyKeyConflictException se a chave foi usada por outra operação
+     */
+    public boolean transferFunds(UUID fromWalletId, UUID toWalletId, BigDecimal amount, UUID idempotencyKey) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Transferindo {} de {} para {} (idempotencyKey: {})", amount, fromWalletId, toWalletId, idempotencyKey);
         }
-        Wallet wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> {
-                    logger.error("Carteira não encontrada: {}", walletId);
-                    return new IllegalArgumentException("Carteira não encontrada");
-                });
-        wallet.deposit(amount);
+        if (fromWalletId.equals(toWalletId)) {
+            logger.error("Carteiras de origem e destino não podem ser iguais");
+            throw new IllegalArgumentException("Carteiras de origem e destino não podem ser iguais");
+        }
+        boolean applied = walletMetrics.record("transfer", () -> {
+            try {
+                if (concurrencyStrategy == ConcurrencyStrategy.QUEUED) {
+                    Wallet.validateWithdrawalAmount(amount);
+                    return inWriteQueue("transfer", new BatchOperation(BatchOperation.Type.TRANSFER, fromWalletId, toWalletId, amount, idempotencyKey));
+                }
+                return inIdempotentTransaction("transfer", idempotencyKey, fromWalletId, TransactionType.TRANSFER_SENT, amount,
+                        () -> applyTransfer(fromWalletId, toWalletId, amount, idempotencyKey));
+            } finally {
+                balanceCache.invalidate(List.of(fromWalletId, toWalletId));
+            }
+        });
+        if (applied) {
+            logger.debug("Transferência concluída de {} para {}", fromWalletId, toWalletId);
+        }
+        return applied;
+    }
+
+    private Transaction applyDeposit(UUID walletId, BigDecimal amount, UUID idempotencyKey) {
+        // Convertido uma vez; daqui em diante o saldo só soma centavos
+        long amountMinor = Wallet.validateDepositAmount(amount);
+        if (concurrencyStrategy == ConcurrencyStrategy.ATOMIC) {
+            long newBalance = walletRepository.applyDeposit(walletId, amountMinor).orElseThrow(() -> walletNotFound(walletId));
+            // O UPDATE já travou a linha; uma chave repetida falha na inserção e desfaz o UPDATE
+            Transaction transaction = new Transaction(walletId, amount, TransactionType.DEPOSIT, idempotencyKey);
+            walletRepository.recordTransaction(transaction);
+            appendBalanceChange(transaction, newBalance);
+            return transaction;
+        }
+        Wallet wallet = findForUpdate(walletId).orElseThrow(() -> walletNotFound(walletId));
+        // O ledger é gravado antes do saldo: uma chave repetida falha aqui, antes de qualquer alteração
+        Transaction transaction = new Transaction(walletId, amount, TransactionType.DEPOSIT, idempotencyKey);
+        walletRepository.recordTransaction(transaction);
+        wallet.deposit(amountMinor);
         walletRepository.save(wallet);
-        walletRepository.recordTransaction(new Transaction(walletId, amount, TransactionType.DEPOSIT, idempotencyKey));
-        logger.debug("Depósito concluído para carteira: {}", walletId);
+        appendBalanceChange(transaction, wallet.getBalanceMinor());
+        return transaction;
     }
 
-    @Transactional
-    public void withdrawFunds(UUID walletId, BigDecimal amount, UUID idempotencyKey) {
-        logger.info("Sacando {} da carteira: {} (idempotencyKey: {})", amount, walletId, idempotencyKey);
-        if (walletRepository.hasProcessed(idempotencyKey)) {
-            logger.info("Operação já processada com idempotencyKey: {}", idempotencyKey);
-            return;
+    private Transaction applyWithdrawal(UUID walletId, BigDecimal amount, UUID idempotencyKey) {
+        long amountMinor = Wallet.validateWithdrawalAmount(amount);
+        if (concurrencyStrategy == ConcurrencyStrategy.ATOMIC) {
+            OptionalLong newBalance = walletRepository.applyWithdrawal(walletId, amountMinor);
+            if (newBalance.isEmpty()) {
+                // Nenhuma linha alterada: a carteira não existe ou o saldo não cobre o saque
+                if (walletRepository.findBalanceById(walletId).isEmpty()) {
+                    throw walletNotFound(walletId);
+                }
+                // A repetição de um saque já aplicado pode não ter mais saldo; responde como já processada
+                if (walletRepository.findProcessed(idempotencyKey, walletId).isPresent()) {
+                    throw new DuplicateOperationException(idempotencyKey);
+                }
+                throw Wallet.insufficientFunds();
+            }
+            Transaction transaction = new Transaction(walletId, amount, TransactionType.WITHDRAWAL, idempotencyKey);
+            walletRepository.recordTransaction(transaction);
+            appendBalanceChange(transaction, newBalance.getAsLong());
+            return transaction;
         }
-        Wallet wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> {
-                    logger.error("Carteira não encontrada: {}", walletId);
-                    return new IllegalArgumentException("Carteira não encontrada");
-                });
-        wallet.withdraw(amount);
+        Wallet wallet = findForUpdate(walletId).orElseThrow(() -> walletNotFound(walletId));
+        Transaction transaction = new Transaction(walletId, amount, TransactionType.WITHDRAWAL, idempotencyKey);
+        walletRepository.recordTransaction(transaction);
+        wallet.withdraw(amountMinor);
         walletRepository.save(wallet);
-        walletRepository.recordTransaction(new Transaction(walletId, amount, TransactionType.WITHDRAWAL, idempotencyKey));
-        logger.debug("Saque concluído para carteira: {}", walletId);
+        appendBalanceChange(transaction, wallet.getBalanceMinor());
+        return transaction;
     }
 
-    @Transactional
-    public void transferFunds(UUID fromWalletId, UUID toWalletId, BigDecimal amount, UUID idempotencyKey) {
-        logger.info("Transferindo {} de {} para {} (idempotencyKey: {})", amount, fromWalletId, toWalletId, idempotencyKey);
-        if (fromWalletId.equals(toWalletId)) {
-            logger.error("Carteiras de origem e destino não podem ser iguais");
-            throw new IllegalArgumentException("Carteiras de origem e destino não podem ser iguais");
+    private Transaction applyTransfer(UUID fromWalletId, UUID toWalletId, BigDecimal amount, UUID idempotencyKey) {
+        long amountMinor = Wallet.validateWithdrawalAmount(amount);
+        // Trava as duas carteiras num único SELECT ... FOR UPDATE ordenado por id, evitando deadlock
+        // entre transferências em sentidos opostos
+        Map<UUID, Wallet> wallets = walletRepository.findAllByIdForUpdate(List.of(fromWalletId, toWalletId));
+        Wallet fromWallet = wallets.get(fromWalletId);
+        if (fromWallet == null) {
+            throw originNotFound(fromWalletId);
         }
-        if (walletRepository.hasProcessed(idempotencyKey)) {
-            logger.info("Operação já processada com idempotencyKey: {}", idempotencyKey);
-            return;
+        Wallet toWallet = wallets.get(toWalletId);
+        if (toWallet == null) {
+            throw destinationNotFound(toWalletId);
         }
-        Wallet fromWallet = walletRepository.findById(fromWalletId)
-                .orElseThrow(() -> {
-                    logger.error("Carteira de origem não encontrada: {}", fromWalletId);
-                    return new IllegalArgumentException("Carteira de origem não encontrada");
-                });
-        Wallet toWallet = walletRepository.findById(toWalletId)
-                .orElseThrow(() -> {
-                    logger.error("Carteira de destino não encontrada: {}", toWalletId);
-                    return new IllegalArgumentException("Carteira de destino não encontrada");
-                });
 
-        fromWallet.withdraw(amount);
-        toWallet.deposit(amount);
+        Transaction sent = new Transaction(fromWalletId, amount, TransactionType.TRANSFER_SENT, idempotencyKey);
+        Transaction received = new Transaction(toWalletId, amount, TransactionType.TRANSFER_RECEIVED, idempotencyKey);
+        walletRepository.recordTransaction(sent);
+        walletRepository.recordTransaction(received);
+
+        fromWallet.withdraw(amountMinor);
+        toWallet.deposit(amountMinor);
 
         walletRepository.save(fromWallet);
         walletRepository.save(toWallet);
-        walletRepository.recordTransaction(new Transaction(fromWalletId, amount, TransactionType.TRANSFER_SENT, idempotencyKey));
-        walletRepository.recordTransaction(new Transaction(toWalletId, amount, TransactionType.TRANSFER_RECEIVED, idempotencyKey));
-        logger.debug("Transferência concluída de {} para {}", fromWalletId, toWalletId);
+        recordBalanceChanges(List.of(
+                BalanceChangeEvent.of(sent, fromWallet.getBalance()),
+                BalanceChangeEvent.of(received, toWallet.getBalance())));
+        return sent;
+    }
+
+    private void appendBalanceChange(Transaction transaction, long newBalanceMinor) {
+        recordBalanceChanges(List.of(BalanceChangeEvent.of(transaction, MinorUnits.toDecimal(newBalanceMinor))));
+    }
+
+    // Dentro da transação: o outbox é gravado junto com ela, e as outras réplicas só são avisadas com o commit
+    private void recordBalanceChanges(List<BalanceChangeEvent> events) {
+        outboxRepository.append(events);
+        balanceCache.publishOnCommit(events.stream().map(BalanceChangeEvent::walletId).toList());
+    }
+
+    private IllegalArgumentException originNotFound(UUID walletId) {
+        logger.error("Carteira de origem não encontrada: {}", walletId);
+        return new IllegalArgumentException("Carteira de origem não encontrada");
+    }
+
+    private IllegalArgumentException destinationNotFound(UUID walletId) {
+        logger.error("Carteira de destino não encontrada: {}", walletId);
+        return new IllegalArgumentException("Carteira de destino não encontrada");
+    }
+
+    private IllegalArgumentException walletNotFound(UUID walletId) {
+        logger.error("Carteira não encontrada: {}", walletId);
+        return new IllegalArgumentException("Carteira não encontrada");
+    }
+
+    // No modo otimista a carteira é lida sem lock; o save grava com a versão lida e falha se ela mudou
+    private Optional<Wallet> findForUpdate(UUID walletId) {
+        return concurrencyStrategy == ConcurrencyStrategy.OPTIMISTIC
+                ? walletRepository.findById(walletId)
+                : walletRepository.findByIdForUpdate(walletId);
+    }
+
+    /**
+     * Executa a operação numa transação nova a cada tentativa; conflitos de lock ou de versão desfazem a
+     * transação e são reexecutados. A chave de idempotência é garantida pelo índice único do ledger: uma
+     * repetição falha na inserção, a transação é desfeita e a chamada recebe o resultado da original, lido da
+     * linha do ledger que ela gravou. O resultado confirmado fica no {@link IdempotencyCache}, e repetições
+     * recentes são conferidas contra ele sem ir ao banco.
+     *
+     * @return {@code false} se a operação já tinha sido processada
+     */
+    private boolean inIdempotentTransaction(String metricName, UUID idempotencyKey, UUID walletId,
+                                            TransactionType type, BigDecimal amount, Supplier<Transaction> operation) {
+        if (answeredFromCache(metricName, idempotencyKey, walletId, type, amount)) {
+            return false;
+        }
+        Transaction recorded;
+        try {
+            recorded = concurrencyRetry.execute(() -> transactionTemplate.execute(status -> operation.get()));
+        } catch (DuplicateOperationException e) {
+            ProcessedOperation original = findOriginal(idempotencyKey, walletId, type, amount);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Operação já processada com idempotencyKey: {}", idempotencyKey);
+            }
+            walletMetrics.idempotentHit(metricName, "database");
+            idempotencyCache.markProcessed(idempotencyKey, original);
+            return false;
+        }
+        // execute só retorna depois do commit
+        idempotencyCache.markProcessed(idempotencyKey, ProcessedOperation.of(recorded));
+        return true;
+    }
+
+    private boolean answeredFromCache(String metricName, UUID idempotencyKey, UUID walletId,
+                                      TransactionType type, BigDecimal amount) {
+        Optional<ProcessedOperation> cached = idempotencyCache.find(idempotencyKey, walletId);
+        if (cached.isEmpty()) {
+            return false;
+        }
+        requireSameOperation(idempotencyKey, cached.get(), type, amount);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Operação já processada com idempotencyKey: {} (cache)", idempotencyKey);
+        }
+        walletMetrics.idempotentHit(metricName, "cache");
+        return true;
+    }
+
+    /**
+     * Entrega a operação à fila de escrita da carteira e aguarda o commit do bloco em que ela foi aplicada,
+     * traduzindo o resultado do item nas mesmas respostas do caminho transacional.
+     *
+     * @return {@code false} se a operação já tinha sido processada
+     */
+    private boolean inWriteQueue(String metricName, BatchOperation operation) {
+        if (answeredFromCache(metricName, operation.idempotencyKey(), operation.walletId(), operation.ledgerType(),
+                operation.amount())) {
+            return false;
+        }
+        BatchItemResult.Status status;
+        try {
+            // Um só prazo para a vaga na fila e para o resultado
+            long deadline = System.nanoTime() + queueTimeout.toNanos();
+            status = walletWriteQueue.submit(operation, deadline).get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // O item ainda pode ser confirmado depois; repetir com a mesma chave é seguro
+            logger.error("Tempo esgotado aguardando a fila de escrita (idempotencyKey: {})", operation.idempotencyKey());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Tempo esgotado aguardando a fila de escrita; repita com a mesma Idempotency-Key");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a fila de escrita", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return switch (status) {
+            case APPLIED -> true;
+            case DUPLICATE -> {
+                ProcessedOperation original = findOriginal(operation.idempotencyKey(), operation.walletId(),
+                        operation.ledgerType(), operation.amount());
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Operação já processada com idempotencyKey: {}", operation.idempotencyKey());
+                }
+                walletMetrics.idempotentHit(metricName, "database");
+                idempotencyCache.markProcessed(operation.idempotencyKey(), original);
+                yield false;
+            }
+            case CONFLICT -> throw new IdempotencyKeyConflictException(operation.idempotencyKey());
+            case WALLET_NOT_FOUND -> throw queuedWalletNotFound(operation);
+            case INSUFFICIENT_FUNDS -> throw Wallet.insufficientFunds();
+            case INVALID -> throw new IllegalArgumentException("Operação inválida");
+        };
+    }
+
+    /**
+     * Uma repetição só recebe o resultado da original se pedir a mesma operação; a chave usada com outro tipo ou
+     * valor, ou só na carteira de destino de uma transferência, é um conflito e não um sucesso silencioso.
+     */
+    private ProcessedOperation findOriginal(UUID idempotencyKey, UUID walletId, TransactionType type, BigDecimal amount) {
+        ProcessedOperation original = walletRepository.findProcessed(idempotencyKey, walletId)
+                .orElseThrow(() -> new IdempotencyKeyConflictException(idempotencyKey));
+        requireSameOperation(idempotencyKey, original, type, amount);
+        return original;
+    }
+
+    private static void requireSameOperation(UUID idempotencyKey, ProcessedOperation original, TransactionType type,
+                                             BigDecimal amount) {
+        if (!original.matches(type, amount)) {
+            logger.warn("Chave de idempotência {} repetida com outra operação (original: {} de {})",
+                    idempotencyKey, original.type(), original.amount());
+            throw new IdempotencyKeyConflictException(idempotencyKey);
+        }
+    }
+
+    private IllegalArgumentException queuedWalletNotFound(BatchOperation operation) {
+        if (operation.type() != BatchOperation.Type.TRANSFER) {
+            return walletNotFound(operation.walletId());
+        }
+        // O resultado do item não diz qual das duas carteiras faltou; caminho raro, vale a consulta
+        return walletRepository.findBalanceById(operation.walletId()).isEmpty()
+                ? originNotFound(operation.walletId())
+                : destinationNotFound(operation.toWalletId());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,213 @@
+package com.walletapp.application.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fila de escrita única por carteira para o modo {@link ConcurrencyStrategy#QUEUED}. As carteiras são
+ * distribuídas em {@code wallet.queue.stripes} filas, cada uma consumida por uma única thread; todas as
+ * operações de uma carteira passam pela mesma fila e não disputam o lock da linha entre si.
+ * <p>
+ * A thread retira tudo o que estiver pendente e aplica numa só transação pelo {@link BatchOperationService}:
+ * um UPDATE por carteira e os INSERTs do ledger em lote (group commit). O bloco fecha ao atingir
+ * {@code wallet.queue.max-batch} itens ou {@code wallet.queue.linger-ms} após o primeiro item; com 0 ms segue
+ * só com o que já estava na fila. Cada chamador recebe o resultado do seu item depois do commit do bloco.
+ * <p>
+ * Se o bloco falhar inteiro, os itens são reaplicados um a um, para que só a operação que causou a falha a receba.
+ * Depois do {@link #shutdown()} a fila recusa operações novas, e quem espera por espaço desiste no prazo que
+ * passou ao {@link #submit(BatchOperation, long)}.
+ */
+@Component
+public class WalletWriteQueue {
+    private static final Logger logger = LoggerFactory.getLogger(WalletWriteQueue.class);
+    private final BatchOperationService batchOperationService;
+    private final Stripe[] stripes;
+    private final int maxBatch;
+    private final long lingerNanos;
+    private volatile boolean closed;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder commitNanos = new LongAdder();
+
+    public WalletWriteQueue(BatchOperationService batchOperationService,
+                            @Value("${wallet.queue.stripes:8}") int stripes,
+                            @Value("${wallet.queue.max-batch:200}") int maxBatch,
+                            @Value("${wallet.queue.capacity:10000}") int capacity,
+                            @Value("${wallet.queue.linger-ms:0}") long lingerMillis) {
+        if (stripes <= 0 || maxBatch <= 0 || capacity <= 0 || lingerMillis < 0) {
+            throw new IllegalArgumentException("wallet.queue.stripes, max-batch e capacity devem ser positivos e linger-ms não negativo");
+        }
+        this.batchOperationService = batchOperationService;
+        this.maxBatch = maxBatch;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(i, capacity);
+        }
+    }
+
+    /**
+     * Enfileira a operação na fila da sua carteira (a de origem, nas transferências); espera até {@code deadline}
+     * enquanto a fila estiver cheia. O chamador usa o mesmo prazo para aguardar o resultado, para que a espera toda
+     * não passe de um timeout. Transferências podem cair em filas diferentes das de destino, o que é seguro porque
+     * cada bloco trava suas carteiras numa única consulta ordenada por id.
+     *
+     * @param deadline prazo em {@link System#nanoTime()}
+     * @return o resultado do item, concluído depois do commit do bloco em que foi aplicado
+     * @throws ResponseStatusException 503 se a fila continuou cheia até o prazo
+     * @throws IllegalStateException se a fila foi encerrada
+     */
+    public CompletableFuture<BatchItemResult.Status> submit(BatchOperation operation, long deadline) {
+        if (closed) {
+            throw closedException();
+        }
+        Stripe stripe = stripes[Math.floorMod(operation.walletId().hashCode(), stripes.length)];
+        Pending pending = new Pending(operation, new CompletableFuture<>());
+        stripe.start();
+        try {
+            if (!stripe.queue.offer(pending, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Fila de escrita cheia; repita com a mesma Idempotency-Key");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando espaço na fila de escrita", e);
+        }
+        // Encerrada durante o offer: a thread pode já ter descartado a fila, então ninguém aplicaria o item
+        if (closed && stripe.queue.remove(pending)) {
+            throw closedException();
+        }
+        return pending.result();
+    }
+
+    private static IllegalStateException closedException() {
+        return new IllegalStateException("Fila de escrita encerrada");
+    }
+
+    public Stats stats() {
+        long committed = batches.sum();
+        long applied = operations.sum();
+        return new Stats(committed, applied,
+                committed == 0 ? 0 : (double) applied / committed,
+                committed == 0 ? 0 : commitNanos.sum() / 1_000_000.0 / committed);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        for (Stripe stripe : stripes) {
+            stripe.stop();
+        }
+    }
+
+    private void drain(BlockingQueue<Pending> queue) {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Pending> pending = new ArrayList<>(maxBatch);
+            try {
+                collect(queue, pending);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!pending.isEmpty()) {
+                apply(pending);
+            }
+        }
+        List<Pending> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(p -> p.result().completeExceptionally(closedException()));
+    }
+
+    private void collect(BlockingQueue<Pending> queue, List<Pending> pending) throws InterruptedException {
+        pending.add(queue.take());
+        long deadline = System.nanoTime() + lingerNanos;
+        queue.drainTo(pending, maxBatch - pending.size());
+        while (pending.size() < maxBatch) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            pending.add(next);
+            queue.drainTo(pending, maxBatch - pending.size());
+        }
+    }
+
+    private void apply(List<Pending> pending) {
+        try {
+            long start = System.nanoTime();
+            List<BatchItemResult> results = batchOperationService.executeChunk(pending.stream().map(Pending::operation).toList());
+            commitNanos.add(System.nanoTime() - start);
+            batches.increment();
+            operations.add(pending.size());
+            for (int i = 0; i < pending.size(); i++) {
+                pending.get(i).result().complete(results.get(i).status());
+            }
+        } catch (RuntimeException e) {
+            if (pending.size() == 1) {
+                logger.error("Falha ao aplicar operação da fila de escrita", e);
+                pending.get(0).result().completeExceptionally(e);
+                return;
+            }
+            // O bloco foi desfeito inteiro; um a um, só a operação que falhou recebe o erro
+            logger.warn("Falha ao aplicar bloco de {} operações da fila de escrita; reaplicando uma a uma: {}",
+                    pending.size(), e.getMessage());
+            pending.forEach(p -> apply(List.of(p)));
+        }
+    }
+
+    /**
+     * Blocos confirmados, itens aplicados, tamanho médio do bloco e tempo médio de aplicação e commit.
+     */
+    public record Stats(long batches, long operations, double averageBatchSize, double averageCommitMillis) {
+    }
+
+    private record Pending(BatchOperation operation, CompletableFuture<BatchItemResult.Status> result) {
+    }
+
+    private final class Stripe {
+        private final int index;
+        private final BlockingQueue<Pending> queue;
+        private final AtomicReference<Thread> writer = new AtomicReference<>();
+
+        Stripe(int index, int capacity) {
+            this.index = index;
+            this.queue = new LinkedBlockingQueue<>(capacity);
+        }
+
+        // A thread só é criada no primeiro uso, para não existir fora do modo QUEUED; sem synchronized,
+        // que prenderia a virtual thread do chamador ao carrier
+        void start() {
+            if (writer.get() == null) {
+                Thread thread = Thread.ofPlatform().daemon().name("wallet-writer-" + index).unstarted(() -> drain(queue));
+                if (writer.compareAndSet(null, thread)) {
+                    thread.start();
+                }
+            }
+        }
+
+        void stop() {
+            Thread thread = writer.get();
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+}
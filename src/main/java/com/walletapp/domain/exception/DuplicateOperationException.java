@@ -0,0 +1,13 @@
+package com.walletapp.domain.exception;
+
+import java.util.UUID;
+
+public class DuplicateOperationException extends RuntimeException {
+    public DuplicateOperationException(UUID idempotencyKey) {
+        super("Operação já processada com idempotencyKey: " + idempotencyKey);
+    }
+
+    public DuplicateOperationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.walletapp.domain.exception;
+
+import java.util.UUID;
+
+/**
+ * A chave de idempotência já foi usada por outra operação (outro tipo, valor ou carteira).
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException(UUID idempotencyKey) {
+        super("Chave de idempotência já usada em outra operação: " + idempotencyKey);
+    }
+}
@@ -0,0 +1,11 @@
+package com.walletapp.domain.exception;
+
+/**
+ * Saque ou transferência maior que o saldo. Continua sendo um {@link IllegalArgumentException}, com a mesma
+ * mensagem de antes, para não mudar a resposta da API; o tipo próprio só permite contá-lo à parte.
+ */
+public class InsufficientFundsException extends IllegalArgumentException {
+    public InsufficientFundsException() {
+        super("Valor de saque inválido");
+    }
+}
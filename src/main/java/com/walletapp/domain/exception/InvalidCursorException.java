@@ -0,0 +1,7 @@
+package com.walletapp.domain.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String cursor) {
+        super("Cursor inválido: " + cursor);
+    }
+}
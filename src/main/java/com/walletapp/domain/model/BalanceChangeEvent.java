@@ -0,0 +1,26 @@
+package com.walletapp.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Alteração de saldo de uma carteira, gravada no outbox na mesma transação da mutação. {@code delta} tem sinal
+ * (negativo em saques e transferências enviadas) e {@code sequence} é atribuída pelo outbox: é nula até a gravação
+ * e crescente, por carteira, na ordem de commit.
+ */
+public record BalanceChangeEvent(
+        Long sequence,
+        UUID walletId,
+        BigDecimal delta,
+        BigDecimal newBalance,
+        TransactionType type,
+        UUID idempotencyKey,
+        LocalDateTime occurredAt
+) {
+    public static BalanceChangeEvent of(Transaction transaction, BigDecimal newBalance) {
+        BigDecimal delta = transaction.type().isCredit() ? transaction.amount() : transaction.amount().negate();
+        return new BalanceChangeEvent(null, transaction.walletId(), delta, newBalance, transaction.type(),
+                transaction.idempotencyKey(), transaction.timestamp());
+    }
+}
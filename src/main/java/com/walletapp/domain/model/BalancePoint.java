@@ -0,0 +1,10 @@
+package com.walletapp.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Saldo de fechamento de um intervalo [{@code start}, {@code end}): inclui as transações anteriores a {@code end}.
+ */
+public record BalancePoint(LocalDateTime start, LocalDateTime end, BigDecimal closingBalance) {
+}
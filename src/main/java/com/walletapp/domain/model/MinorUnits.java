@@ -0,0 +1,52 @@
+package com.walletapp.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valores monetários em centavos num {@code long}: escala fixa de {@value #SCALE} casas, somas sem alocação e
+ * estouro detectado em vez de silencioso. A API continua recebendo e devolvendo {@link BigDecimal}; a conversão
+ * acontece na borda, com {@link #of(BigDecimal)} e {@link #toDecimal(long)}.
+ */
+public final class MinorUnits {
+    public static final int SCALE = 2;
+
+    private MinorUnits() {
+    }
+
+    /**
+     * @throws IllegalArgumentException se o valor tiver mais de {@value #SCALE} casas decimais ou não couber num long
+     */
+    public static long of(BigDecimal amount) {
+        if (!hasValidScale(amount)) {
+            throw new IllegalArgumentException("O valor deve ter no máximo " + SCALE + " casas decimais");
+        }
+        try {
+            return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor fora do intervalo suportado");
+        }
+    }
+
+    public static boolean hasValidScale(BigDecimal amount) {
+        return amount.scale() <= SCALE || amount.stripTrailingZeros().scale() <= SCALE;
+    }
+
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * @throws ArithmeticException em caso de estouro
+     */
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * @throws ArithmeticException em caso de estouro
+     */
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+}
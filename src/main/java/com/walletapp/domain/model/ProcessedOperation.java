@@ -0,0 +1,22 @@
+package com.walletapp.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Primeiro resultado confirmado de uma chave de idempotência numa carteira: a linha do ledger que ela gravou.
+ * Uma repetição só é respondida como a operação original se pedir a mesma coisa.
+ */
+public record ProcessedOperation(UUID transactionId, UUID walletId, TransactionType type, BigDecimal amount,
+                                 LocalDateTime processedAt) {
+
+    public static ProcessedOperation of(Transaction transaction) {
+        return new ProcessedOperation(transaction.id(), transaction.walletId(), transaction.type(), transaction.amount(),
+                transaction.timestamp());
+    }
+
+    public boolean matches(TransactionType type, BigDecimal amount) {
+        return this.type == type && this.amount.compareTo(amount) == 0;
+    }
+}
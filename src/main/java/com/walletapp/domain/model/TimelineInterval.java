@@ -0,0 +1,35 @@
+package com.walletapp.domain.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Tamanho dos intervalos da linha do tempo de saldo. Os limites seguem o relógio local, como os timestamps do ledger.
+ */
+public enum TimelineInterval {
+    HOUR,
+    DAY,
+    MONTH;
+
+    /**
+     * @return início do intervalo que contém {@code dateTime}
+     */
+    public LocalDateTime truncate(LocalDateTime dateTime) {
+        return switch (this) {
+            case HOUR -> dateTime.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> dateTime.truncatedTo(ChronoUnit.DAYS);
+            case MONTH -> dateTime.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * @return início do intervalo seguinte ao que começa em {@code start}
+     */
+    public LocalDateTime next(LocalDateTime start) {
+        return switch (this) {
+            case HOUR -> start.plusHours(1);
+            case DAY -> start.plusDays(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+}
@@ -13,7 +13,7 @@ public record Transaction(
         UUID idempotencyKey // Client-provided key to ensure idempotency
 ) {
     public Transaction(UUID walletId, BigDecimal amount, TransactionType type, UUID idempotencyKey) {
-        this(UUID.randomUUID(), walletId, amount, type, LocalDateTime.now(), idempotencyKey);
+        this(IdGenerator.newId(), walletId, amount, type, LocalDateTime.now(), idempotencyKey);
     }
 }
 
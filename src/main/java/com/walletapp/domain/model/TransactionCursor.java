@@ -0,0 +1,35 @@
+package com.walletapp.domain.model;
+
+import com.walletapp.domain.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição no extrato de uma carteira, na ordem (timestamp, id). Trafega como um token opaco para que o
+ * cliente não dependa do formato.
+ */
+public record TransactionCursor(LocalDateTime timestamp, UUID id) {
+
+    public static TransactionCursor after(Transaction transaction) {
+        return new TransactionCursor(transaction.timestamp(), transaction.id());
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.walletapp.domain.model;
+
+import java.util.List;
+
+/**
+ * Página do extrato. {@code nextCursor} é nulo quando não há mais transações.
+ */
+public record TransactionPage(List<Transaction> transactions, String nextCursor) {
+}
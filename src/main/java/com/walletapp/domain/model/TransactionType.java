@@ -1,3 +1,9 @@
 package com.walletapp.domain.model;
 
-public enum TransactionType { DEPOSIT, WITHDRAWAL, TRANSFER_SENT, TRANSFER_RECEIVED }
+public enum TransactionType {
+    DEPOSIT, WITHDRAWAL, TRANSFER_SENT, TRANSFER_RECEIVED;
+
+    public boolean isCredit() {
+        return this == DEPOSIT || this == TRANSFER_RECEIVED;
+    }
+}
@@ -1,5 +1,6 @@
 package com.walletapp.domain.model;
 
+import com.walletapp.domain.exception.InsufficientFundsException;
 import lombok.Getter;
 
 import java.math.BigDecimal;
@@ -10,35 +11,93 @@ import java.util.UUID;
 public class Wallet {
     private final UUID id;
     private final UUID userId;
-    private BigDecimal balance;
+    // Centavos (MinorUnits): depósito e saque somam longs; BigDecimal só na borda, em getBalance()
+    private long balanceMinor;
     private LocalDateTime createdAt;
+    private final Long version; // Versão lida do banco; null enquanto a carteira não foi persistida
+    // Lançamentos desde o último checkpoint de saldo: gravado no mesmo UPDATE do saldo, evita uma contagem por transação
+    private int transactionsSinceCheckpoint;
 
     public Wallet(UUID userId) {
-        this.id = UUID.randomUUID();
+        this.id = IdGenerator.newId();
         this.userId = userId;
-        this.balance = BigDecimal.ZERO;
+        this.balanceMinor = 0L;
         this.createdAt = LocalDateTime.now();
+        this.version = null;
     }
 
     public Wallet(UUID id, UUID userId, BigDecimal balance, LocalDateTime createdAt) {
+        this(id, userId, balance, createdAt, null);
+    }
+
+    public Wallet(UUID id, UUID userId, BigDecimal balance, LocalDateTime createdAt, Long version) {
+        this(id, userId, MinorUnits.of(balance), createdAt, version, 0);
+    }
+
+    public Wallet(UUID id, UUID userId, long balanceMinor, LocalDateTime createdAt, Long version,
+                  int transactionsSinceCheckpoint) {
         this.id = id;
         this.userId = userId;
-        this.balance = balance;
+        this.balanceMinor = balanceMinor;
         this.createdAt = createdAt;
+        this.version = version;
+        this.transactionsSinceCheckpoint = transactionsSinceCheckpoint;
+    }
+
+    public BigDecimal getBalance() {
+        return MinorUnits.toDecimal(balanceMinor);
+    }
+
+    /**
+     * @param amountMinor valor em centavos, já convertido por {@link #validateDepositAmount(BigDecimal)}
+     */
+    public void deposit(long amountMinor) {
+        if (amountMinor <= 0) {
+            throw new IllegalArgumentException("O valor deve ser positivo");
+        }
+        this.balanceMinor = MinorUnits.add(balanceMinor, amountMinor);
+        transactionsSinceCheckpoint++;
     }
 
-    public void deposit(BigDecimal amount) {
+    /**
+     * @param amountMinor valor em centavos, já convertido por {@link #validateWithdrawalAmount(BigDecimal)}
+     */
+    public void withdraw(long amountMinor) {
+        if (amountMinor <= 0) {
+            throw new IllegalArgumentException("Valor de saque inválido");
+        }
+        if (amountMinor > balanceMinor) {
+            throw insufficientFunds();
+        }
+        this.balanceMinor -= amountMinor;
+        transactionsSinceCheckpoint++;
+    }
+
+    // Regras expostas para quem altera o saldo direto no banco, sem carregar a carteira
+
+    /**
+     * @return o valor em centavos
+     */
+    public static long validateDepositAmount(BigDecimal amount) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("O valor deve ser positivo");
         }
-        this.balance = this.balance.add(amount);
+        // O ledger guarda centavos: frações menores seriam arredondadas sem aviso
+        return MinorUnits.of(amount);
     }
 
-    public void withdraw(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0 || amount.compareTo(balance) > 0) {
+    /**
+     * @return o valor em centavos
+     */
+    public static long validateWithdrawalAmount(BigDecimal amount) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Valor de saque inválido");
         }
-        this.balance = this.balance.subtract(amount);
+        return MinorUnits.of(amount);
+    }
+
+    public static InsufficientFundsException insufficientFunds() {
+        return new InsufficientFundsException();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.walletapp.domain.repository;
+
+import com.walletapp.domain.model.BalanceChangeEvent;
+
+import java.util.List;
+
+public interface OutboxRepository {
+    /**
+     * Grava os eventos na transação corrente, que precisa existir: confirmados ou desfeitos junto com a mutação.
+     */
+    void append(List<BalanceChangeEvent> events);
+}
@@ -0,0 +1,23 @@
+package com.walletapp.domain.repository;
+
+import com.walletapp.domain.model.Transaction;
+import com.walletapp.domain.model.TransactionCursor;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Leitura do ledger de uma carteira na ordem (timestamp, id).
+ */
+public interface TransactionHistoryRepository {
+    /**
+     * @param after posição a partir da qual ler, exclusiva; {@code null} para a primeira página
+     */
+    List<Transaction> findPage(UUID walletId, TransactionCursor after, int limit);
+
+    /**
+     * Entrega todas as transações da carteira ao {@code consumer}, uma a uma, sem carregá-las todas em memória.
+     */
+    void forEach(UUID walletId, Consumer<Transaction> consumer);
+}
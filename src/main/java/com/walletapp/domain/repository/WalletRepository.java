@@ -1,17 +1,71 @@
 package com.walletapp.domain.repository;
 
+import com.walletapp.domain.model.BalancePoint;
+import com.walletapp.domain.model.ProcessedOperation;
+import com.walletapp.domain.model.TimelineInterval;
 import com.walletapp.domain.model.Wallet;
 import com.walletapp.domain.model.Transaction;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 public interface WalletRepository {
     Wallet save(Wallet wallet);
     Optional<Wallet> findById(UUID walletId);
+    Optional<Wallet> findByIdForUpdate(UUID walletId);
+    Optional<BigDecimal> findBalanceById(UUID walletId);
+    /**
+     * Saldos das carteiras pedidas numa única consulta, sem lock; as inexistentes ficam fora do mapa.
+     */
+    Map<UUID, BigDecimal> findBalancesByIds(Collection<UUID> walletIds);
+    /**
+     * @return saldo de até {@code limit} carteiras do usuário com id maior que {@code after} (nulo para o
+     * início), ordenado por id da carteira
+     */
+    Map<UUID, BigDecimal> findBalancesByUserId(UUID userId, UUID after, int limit);
+    Map<UUID, Wallet> findAllByIdForUpdate(Collection<UUID> walletIds);
+    /**
+     * Soma ao saldo num único UPDATE, sem carregar a carteira.
+     *
+     * @return o saldo em centavos depois do UPDATE; vazio se a carteira não existe
+     */
+    OptionalLong applyDeposit(UUID walletId, long amountMinor);
+    /**
+     * @return o saldo em centavos depois do UPDATE; vazio se a carteira não existe ou o saldo não cobre o saque
+     */
+    OptionalLong applyWithdrawal(UUID walletId, long amountMinor);
     BigDecimal getHistoricalBalance(UUID walletId, LocalDateTime dateTime);
+    /**
+     * Saldo de fechamento de cada intervalo a partir de {@code from} (já alinhado ao intervalo) enquanto o início
+     * for anterior a {@code to}, numa única leitura ordenada do ledger do período.
+     */
+    List<BalancePoint> getBalanceTimeline(UUID walletId, LocalDateTime from, LocalDateTime to, TimelineInterval interval);
+    /**
+     * Grava a transação no ledger.
+     *
+     * @throws com.walletapp.domain.exception.DuplicateOperationException se a carteira já tem uma transação
+     *         com a mesma chave de idempotência
+     */
     void recordTransaction(Transaction transaction);
-    boolean hasProcessed(UUID idempotencyKey);
+    /**
+     * Grava várias transações no ledger num único flush, enviado ao banco em lotes JDBC.
+     *
+     * @throws com.walletapp.domain.exception.DuplicateOperationException se alguma chave de idempotência
+     *         já foi gravada na mesma carteira
+     */
+    void recordTransactions(List<Transaction> transactions);
+    /**
+     * @return a operação que gravou a chave de idempotência na carteira, se houver
+     */
+    Optional<ProcessedOperation> findProcessed(UUID idempotencyKey, UUID walletId);
+    /**
+     * @return para cada chave já gravada no ledger, a operação que ela gravou em cada carteira
+     */
+    Map<UUID, Map<UUID, ProcessedOperation>> findProcessedOperations(Collection<UUID> idempotencyKeys);
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.walletapp.infrastructure.invalidation;
+
+import com.walletapp.application.service.CacheInvalidationBus;
+import com.walletapp.infrastructure.persistence.CacheInvalidationEntity;
+import com.walletapp.infrastructure.persistence.JpaCacheInvalidationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Barramento que usa o próprio banco: cada invalidação vira uma linha em {@code cache_invalidation}, e cada
+ * réplica lê periodicamente as linhas novas das outras. Não exige infraestrutura além do banco.
+ * <p>
+ * Um id IDENTITY pode ficar visível depois de um maior (ordem de commit), então cada leitura volta
+ * {@code wallet.invalidation.overlap} ids. As linhas dessa janela que já foram aplicadas são lembradas e ignoradas,
+ * para que as carteiras mais alteradas não sejam despejadas a cada leitura. Linhas mais antigas que
+ * {@code wallet.invalidation.retention} são apagadas.
+ * <p>
+ * As linhas são gravadas na transação da mutação, ao lado do outbox: nenhum commit a mais por escrita, e a
+ * invalidação aparece para as outras réplicas exatamente quando a mutação é confirmada.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.invalidation.bus", havingValue = "jdbc")
+public class JdbcPollingInvalidationBus implements CacheInvalidationBus {
+    private static final Logger logger = LoggerFactory.getLogger(JdbcPollingInvalidationBus.class);
+    private final UUID nodeId = UUID.randomUUID();
+    private final JpaCacheInvalidationRepository jpaCacheInvalidationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<Consumer<Collection<UUID>>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService poller;
+    private final long overlap;
+    private final Duration retention;
+    private long lastSeenId;
+    // Ids já aplicados dentro da janela de sobreposição; só a thread do poller usa
+    private final NavigableSet<Long> applied = new TreeSet<>();
+
+    public JdbcPollingInvalidationBus(JpaCacheInvalidationRepository jpaCacheInvalidationRepository,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${wallet.invalidation.poll-interval-ms:200}") long pollIntervalMillis,
+                                      @Value("${wallet.invalidation.overlap:100}") long overlap,
+                                      @Value("${wallet.invalidation.retention:PT10M}") Duration retention) {
+        this.jpaCacheInvalidationRepository = jpaCacheInvalidationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.overlap = overlap;
+        this.retention = retention;
+        // Só interessa o que for publicado a partir de agora
+        this.lastSeenId = jpaCacheInvalidationRepository.findMaxId();
+        this.poller = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("cache-invalidation-poller").factory());
+        poller.scheduleWithFixedDelay(this::pollSafely, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(this::purgeSafely, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void publish(Collection<UUID> walletIds) {
+        jpaCacheInvalidationRepository.saveAll(walletIds.stream()
+                .map(walletId -> CacheInvalidationEntity.of(walletId, nodeId))
+                .toList());
+    }
+
+    @Override
+    public boolean joinsTransaction() {
+        return true;
+    }
+
+    @Override
+    public void subscribe(Consumer<Collection<UUID>> listener) {
+        listeners.add(listener);
+    }
+
+    // Roda sempre na thread do poller
+    void poll() {
+        List<CacheInvalidationEntity> rows =
+                jpaCacheInvalidationRepository.findByIdGreaterThanOrderByIdAsc(Math.max(0, lastSeenId - overlap));
+        if (rows.isEmpty()) {
+            return;
+        }
+        lastSeenId = Math.max(lastSeenId, rows.get(rows.size() - 1).getId());
+        Set<UUID> walletIds = rows.stream()
+                .filter(row -> applied.add(row.getId()))
+                .filter(row -> !nodeId.equals(row.getNodeId()))
+                .map(CacheInvalidationEntity::getWalletId)
+                .collect(Collectors.toSet());
+        // Abaixo da janela nenhuma linha volta a ser lida
+        applied.headSet(lastSeenId - overlap, true).clear();
+        if (!walletIds.isEmpty()) {
+            listeners.forEach(listener -> listener.accept(walletIds));
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao ler invalidações de cache: {}", e.getMessage());
+        }
+    }
+
+    private void purgeSafely() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    jpaCacheInvalidationRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention)));
+            logger.debug("Invalidações de cache antigas removidas: {}", deleted);
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao remover invalidações de cache antigas: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+}
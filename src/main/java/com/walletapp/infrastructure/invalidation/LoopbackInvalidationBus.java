@@ -0,0 +1,47 @@
+package com.walletapp.infrastructure.invalidation;
+
+import com.walletapp.application.service.CacheInvalidationBus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Barramento dentro da própria JVM: cada contexto Spring é uma réplica, e o que um publica é entregue na hora
+ * aos demais. Serve para testes com vários contextos e para rodar sem infraestrutura extra.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.invalidation.bus", havingValue = "loopback")
+public class LoopbackInvalidationBus implements CacheInvalidationBus {
+    private static final List<LoopbackInvalidationBus> MEMBERS = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Collection<UUID>>> listeners = new CopyOnWriteArrayList<>();
+
+    public LoopbackInvalidationBus() {
+        MEMBERS.add(this);
+    }
+
+    @Override
+    public void publish(Collection<UUID> walletIds) {
+        List<UUID> message = List.copyOf(walletIds);
+        for (LoopbackInvalidationBus member : MEMBERS) {
+            if (member != this) {
+                member.listeners.forEach(listener -> listener.accept(message));
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Collection<UUID>> listener) {
+        listeners.add(listener);
+    }
+
+    @PreDestroy
+    public void leave() {
+        MEMBERS.remove(this);
+    }
+}
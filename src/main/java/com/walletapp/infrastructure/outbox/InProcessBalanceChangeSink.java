@@ -0,0 +1,32 @@
+package com.walletapp.infrastructure.outbox;
+
+import com.walletapp.application.service.BalanceChangeSink;
+import com.walletapp.domain.model.BalanceChangeEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Entrega os lotes aos assinantes dentro da própria JVM, na thread do relay: alimenta o fluxo SSE e os testes.
+ * Um assinante que lança exceção faz o relay reenviar o lote a todos.
+ */
+@Component
+public class InProcessBalanceChangeSink implements BalanceChangeSink {
+    private final List<Consumer<List<BalanceChangeEvent>>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(List<BalanceChangeEvent> events) {
+        listeners.forEach(listener -> listener.accept(events));
+    }
+
+    /**
+     * @param listener deve retornar rápido: o relay espera todos os assinantes antes do lote seguinte
+     * @return cancela a assinatura
+     */
+    public Runnable subscribe(Consumer<List<BalanceChangeEvent>> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+}
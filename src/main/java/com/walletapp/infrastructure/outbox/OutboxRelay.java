@@ -0,0 +1,168 @@
+package com.walletapp.infrastructure.outbox;
+
+import com.walletapp.application.service.BalanceChangeSink;
+import com.walletapp.application.service.WalletMetrics;
+import com.walletapp.domain.model.BalanceChangeEvent;
+import com.walletapp.infrastructure.persistence.JpaOutboxEventRepository;
+import com.walletapp.infrastructure.persistence.JpaOutboxRelayLeaseRepository;
+import com.walletapp.infrastructure.persistence.OutboxEventEntity;
+import com.walletapp.infrastructure.persistence.OutboxRelayLeaseEntity;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lê o outbox em ordem de id, em lotes de {@code wallet.outbox.batch-size}, entrega cada lote a todos os
+ * {@link BalanceChangeSink} e só então apaga as linhas. Uma falha de qualquer destino deixa o lote no outbox, e ele
+ * é reenviado inteiro na próxima leitura: entrega ao menos uma vez, em ordem por carteira.
+ * <p>
+ * Cada lote roda numa transação que trava a linha do relay em {@code outbox_relay_lease_entity} com SKIP LOCKED.
+ * Todas as réplicas podem rodar o relay: a que não consegue a linha pula a rodada, então só uma publica por vez e a
+ * ordem entre lotes se mantém. Se a réplica que publica cair, o banco libera a linha junto com a conexão.
+ * <p>
+ * O relay só cria a linha e começa a ler quando a aplicação está pronta; construir o bean não toca no banco.
+ * O gauge de pendentes vem da última rodada, sem consulta a cada leitura das métricas.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final String LEASE = "outbox-relay";
+    private final JpaOutboxEventRepository jpaOutboxEventRepository;
+    private final JpaOutboxRelayLeaseRepository jpaOutboxRelayLeaseRepository;
+    private final List<BalanceChangeSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final WalletMetrics walletMetrics;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final ScheduledExecutorService poller;
+    private final ReentrantLock relaying = new ReentrantLock();
+    // Eventos que a última rodada desta réplica deixou no outbox
+    private volatile long pending;
+
+    public OutboxRelay(JpaOutboxEventRepository jpaOutboxEventRepository,
+                       JpaOutboxRelayLeaseRepository jpaOutboxRelayLeaseRepository,
+                       List<BalanceChangeSink> sinks,
+                       TransactionTemplate transactionTemplate,
+                       WalletMetrics walletMetrics,
+                       @Value("${wallet.outbox.poll-interval-ms:100}") long pollIntervalMillis,
+                       @Value("${wallet.outbox.batch-size:500}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("wallet.outbox.batch-size deve ser positivo");
+        }
+        this.jpaOutboxEventRepository = jpaOutboxEventRepository;
+        this.jpaOutboxRelayLeaseRepository = jpaOutboxRelayLeaseRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.walletMetrics = walletMetrics;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        walletMetrics.outboxPending(() -> pending);
+        this.poller = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("outbox-relay").factory());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        createLease();
+        poller.scheduleWithFixedDelay(this::relaySafely, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void createLease() {
+        if (jpaOutboxRelayLeaseRepository.existsById(LEASE)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jpaOutboxRelayLeaseRepository.save(OutboxRelayLeaseEntity.of(LEASE)));
+        } catch (DataIntegrityViolationException e) {
+            // Outra réplica criou a linha ao mesmo tempo
+        }
+    }
+
+    /**
+     * Publica lotes até o outbox ficar vazio; chamadas concorrentes nesta réplica esperam a anterior terminar.
+     *
+     * @return quantidade de eventos publicados; zero também quando outra réplica está publicando
+     */
+    public int relay() {
+        relaying.lock();
+        try {
+            int published = 0;
+            while (true) {
+                Integer batch = transactionTemplate.execute(status -> relayBatch());
+                published += batch;
+                if (batch < batchSize) {
+                    return published;
+                }
+            }
+        } finally {
+            relaying.unlock();
+        }
+    }
+
+    private int relayBatch() {
+        if (jpaOutboxRelayLeaseRepository.lockIfFree(LEASE).isEmpty()) {
+            logger.debug("Outro relay está publicando o outbox; rodada ignorada");
+            return 0;
+        }
+        List<OutboxEventEntity> rows = jpaOutboxEventRepository.findByOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (rows.isEmpty()) {
+            pending = 0;
+            return 0;
+        }
+        List<BalanceChangeEvent> events = rows.stream().map(OutboxEventEntity::toDomain).toList();
+        long start = System.nanoTime();
+        for (BalanceChangeSink sink : sinks) {
+            sink.publish(events);
+        }
+        walletMetrics.outboxPublished(events, System.nanoTime() - start);
+        // Apagado só depois de todos os destinos aceitarem, no commit que libera a linha: uma queda aqui reenvia o lote
+        jpaOutboxEventRepository.deleteByIds(rows.stream().map(OutboxEventEntity::getId).toList());
+        if (rows.size() < batchSize) {
+            // Lote incompleto: não havia mais nada quando ele foi lido
+            pending = 0;
+        }
+        return rows.size();
+    }
+
+    private void relaySafely() {
+        try {
+            int published = relay();
+            if (published > 0) {
+                logger.debug("Eventos de saldo publicados: {}", published);
+            }
+        } catch (RuntimeException e) {
+            walletMetrics.outboxFailure();
+            logger.warn("Falha ao publicar eventos do outbox; o lote será reenviado: {}", e.getMessage());
+            // Só enquanto as entregas falham o acúmulo é contado no banco
+            countPendingSafely();
+        }
+    }
+
+    private void countPendingSafely() {
+        try {
+            pending = jpaOutboxEventRepository.count();
+        } catch (RuntimeException e) {
+            logger.debug("Falha ao contar eventos pendentes do outbox: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+}
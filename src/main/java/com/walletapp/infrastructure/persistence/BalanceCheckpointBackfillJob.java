@@ -0,0 +1,55 @@
+package com.walletapp.infrastructure.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Gera os checkpoints de saldo das carteiras que já tinham transações antes dos checkpoints existirem.
+ * Roda na inicialização quando {@code wallet.checkpoint.backfill-on-startup=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.checkpoint.backfill-on-startup", havingValue = "true")
+public class BalanceCheckpointBackfillJob implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(BalanceCheckpointBackfillJob.class);
+    private static final int WALLET_PAGE_SIZE = 500;
+    private final JpaWalletRepository jpaWalletRepository;
+    private final BalanceCheckpointManager balanceCheckpointManager;
+
+    public BalanceCheckpointBackfillJob(JpaWalletRepository jpaWalletRepository, BalanceCheckpointManager balanceCheckpointManager) {
+        this.jpaWalletRepository = jpaWalletRepository;
+        this.balanceCheckpointManager = balanceCheckpointManager;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill();
+    }
+
+    public long backfill() {
+        logger.info("Iniciando backfill de checkpoints de saldo");
+        long created = 0;
+        Pageable pageable = PageRequest.of(0, WALLET_PAGE_SIZE);
+        Slice<UUID> walletIds;
+        do {
+            walletIds = jpaWalletRepository.findAllIds(pageable);
+            for (UUID walletId : walletIds) {
+                // Cada checkpoint roda em sua própria transação para manter o contexto de persistência pequeno
+                while (balanceCheckpointManager.checkpointNext(walletId)) {
+                    created++;
+                }
+            }
+            pageable = walletIds.nextPageable();
+        } while (walletIds.hasNext());
+        logger.info("Backfill de checkpoints concluído: {} checkpoints criados", created);
+        return created;
+    }
+}
@@ -0,0 +1,37 @@
+package com.walletapp.infrastructure.persistence;
+
+import com.walletapp.domain.model.IdGenerator;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Saldo consolidado de uma carteira ao fim do instante {@code asOf}: cobre todas as transações com
+ * {@code timestamp <= asOf}. Um checkpoint só fecha um instante depois que a carteira já tem transação mais nova,
+ * então nenhuma gravação posterior cai dentro dele.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_checkpoint_wallet_as_of", columnList = "walletId, asOf"))
+@Data
+public class BalanceCheckpointEntity {
+    @Id
+    private UUID id;
+    private UUID walletId;
+    private LocalDateTime asOf;
+    // Em centavos, como TransactionEntity.amountMinor
+    private long balanceMinor;
+
+    public static BalanceCheckpointEntity at(UUID walletId, LocalDateTime asOf, long balanceMinor) {
+        BalanceCheckpointEntity entity = new BalanceCheckpointEntity();
+        entity.setId(IdGenerator.newId());
+        entity.setWalletId(walletId);
+        entity.setAsOf(asOf);
+        entity.setBalanceMinor(balanceMinor);
+        return entity;
+    }
+}
@@ -0,0 +1,105 @@
+package com.walletapp.infrastructure.persistence;
+
+import com.walletapp.domain.model.MinorUnits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Mantém checkpoints de saldo a cada {@code wallet.checkpoint.interval} transações de uma carteira,
+ * para que o saldo histórico só precise reprocessar as transações posteriores ao checkpoint.
+ * <p>
+ * A carteira conta as transações desde o último checkpoint na própria linha, no mesmo UPDATE do saldo; só quando
+ * a contagem chega ao intervalo o ledger é consultado.
+ */
+@Component
+public class BalanceCheckpointManager {
+    private static final Logger logger = LoggerFactory.getLogger(BalanceCheckpointManager.class);
+    private final JpaBalanceCheckpointRepository jpaBalanceCheckpointRepository;
+    private final JpaTransactionRepository jpaTransactionRepository;
+    private final int interval;
+
+    public BalanceCheckpointManager(JpaBalanceCheckpointRepository jpaBalanceCheckpointRepository,
+                                    JpaTransactionRepository jpaTransactionRepository,
+                                    @Value("${wallet.checkpoint.interval:500}") int interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("wallet.checkpoint.interval deve ser positivo");
+        }
+        this.jpaBalanceCheckpointRepository = jpaBalanceCheckpointRepository;
+        this.jpaTransactionRepository = jpaTransactionRepository;
+        this.interval = interval;
+    }
+
+    public boolean isDue(int transactionsSinceCheckpoint) {
+        return transactionsSinceCheckpoint >= interval;
+    }
+
+    /**
+     * Grava os checkpoints devidos da carteira (um lote pode ter acumulado vários intervalos); deve rodar sob o
+     * lock da carteira, depois de as transações terem sido gravadas.
+     *
+     * @return transações da carteira posteriores ao último checkpoint, o novo valor do contador
+     */
+    @Transactional
+    public int checkpointDue(UUID walletId) {
+        Optional<BalanceCheckpointEntity> latest = jpaBalanceCheckpointRepository.findFirstByWalletIdOrderByAsOfDescIdDesc(walletId);
+        for (Optional<BalanceCheckpointEntity> next = writeNext(walletId, latest); next.isPresent(); next = writeNext(walletId, latest)) {
+            latest = next;
+        }
+        long pending = latest
+                .map(checkpoint -> jpaTransactionRepository.countAfterCheckpoint(walletId, checkpoint.getAsOf()))
+                .orElseGet(() -> jpaTransactionRepository.countByWalletId(walletId));
+        return (int) Math.min(pending, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Grava o próximo checkpoint da carteira se houver {@code interval} transações após o último.
+     * <p>
+     * O checkpoint fecha no instante da {@code interval}-ésima transação e cobre todas as transações desse instante,
+     * inclusive as que passarem da página. Só é gravado se a carteira já tiver uma transação mais nova: enquanto o
+     * instante for o último do ledger, uma gravação concorrente no mesmo instante (com id menor) ficaria de fora.
+     *
+     * @return {@code true} se um checkpoint foi gravado
+     */
+    @Transactional
+    public boolean checkpointNext(UUID walletId) {
+        return writeNext(walletId, jpaBalanceCheckpointRepository.findFirstByWalletIdOrderByAsOfDescIdDesc(walletId)).isPresent();
+    }
+
+    private Optional<BalanceCheckpointEntity> writeNext(UUID walletId, Optional<BalanceCheckpointEntity> latest) {
+        PageRequest page = PageRequest.of(0, interval);
+        List<TransactionEntity> transactions = latest
+                .map(checkpoint -> jpaTransactionRepository.findByWalletIdAndTimestampAfterOrderByTimestampAscIdAsc(
+                        walletId, checkpoint.getAsOf(), page))
+                .orElseGet(() -> jpaTransactionRepository.findByWalletIdOrderByTimestampAscIdAsc(walletId, page));
+        if (transactions.size() < interval) {
+            return Optional.empty();
+        }
+        LocalDateTime asOf = transactions.get(transactions.size() - 1).getTimestamp();
+        if (!jpaTransactionRepository.existsByWalletIdAndTimestampAfter(walletId, asOf)) {
+            return Optional.empty();
+        }
+
+        // Somado no banco: as transações do instante asOf podem passar da página
+        long balance = latest
+                .map(checkpoint -> MinorUnits.add(checkpoint.getBalanceMinor(), orZero(
+                        jpaTransactionRepository.sumSignedAmountsAfterCheckpoint(walletId, checkpoint.getAsOf(), asOf))))
+                .orElseGet(() -> orZero(jpaTransactionRepository.sumSignedAmounts(walletId, asOf)));
+        BalanceCheckpointEntity checkpoint = BalanceCheckpointEntity.at(walletId, asOf, balance);
+        jpaBalanceCheckpointRepository.save(checkpoint);
+        logger.debug("Checkpoint de saldo gravado para carteira: {} em {}", walletId, checkpoint.getAsOf());
+        return Optional.of(checkpoint);
+    }
+
+    private static long orZero(Long sum) {
+        return sum == null ? 0L : sum;
+    }
+}
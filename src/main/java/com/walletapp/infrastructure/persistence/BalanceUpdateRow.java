@@ -0,0 +1,7 @@
+package com.walletapp.infrastructure.persistence;
+
+/**
+ * Saldo e contador de checkpoint de uma carteira, lidos depois de um UPDATE atômico.
+ */
+public record BalanceUpdateRow(long balanceMinor, int transactionsSinceCheckpoint) {
+}
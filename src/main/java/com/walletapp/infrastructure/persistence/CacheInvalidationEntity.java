@@ -0,0 +1,33 @@
+package com.walletapp.infrastructure.persistence;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(indexes = @Index(name = "idx_cache_invalidation_created_at", columnList = "createdAt"))
+@Data
+public class CacheInvalidationEntity {
+    // IDENTITY: as réplicas leem as invalidações em ordem crescente de id
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private UUID walletId;
+    private UUID nodeId;
+    private LocalDateTime createdAt;
+
+    public static CacheInvalidationEntity of(UUID walletId, UUID nodeId) {
+        CacheInvalidationEntity entity = new CacheInvalidationEntity();
+        entity.setWalletId(walletId);
+        entity.setNodeId(nodeId);
+        entity.setCreatedAt(LocalDateTime.now());
+        return entity;
+    }
+}
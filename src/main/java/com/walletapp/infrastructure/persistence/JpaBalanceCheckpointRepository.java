@@ -0,0 +1,25 @@
+package com.walletapp.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface JpaBalanceCheckpointRepository extends JpaRepository<BalanceCheckpointEntity, UUID> {
+    // Desempate pelo id (UUIDv7, crescente com o tempo): o checkpoint gravado por último vence
+    Optional<BalanceCheckpointEntity> findFirstByWalletIdOrderByAsOfDescIdDesc(UUID walletId);
+
+    Optional<BalanceCheckpointEntity> findFirstByWalletIdAndAsOfLessThanEqualOrderByAsOfDescIdDesc(UUID walletId, LocalDateTime dateTime);
+
+    Optional<BalanceCheckpointEntity> findFirstByWalletIdAndAsOfLessThanOrderByAsOfDescIdDesc(UUID walletId, LocalDateTime before);
+
+    // Checkpoints cobertos pelo arquivo frio, trocados por um único checkpoint no fim do arquivo
+    @Modifying
+    @Query("DELETE FROM BalanceCheckpointEntity c WHERE c.walletId IN :walletIds AND c.asOf < :cutoff")
+    int deleteBefore(@Param("walletIds") Collection<UUID> walletIds, @Param("cutoff") LocalDateTime cutoff);
+}
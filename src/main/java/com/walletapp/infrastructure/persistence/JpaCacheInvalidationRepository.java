@@ -0,0 +1,20 @@
+package com.walletapp.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface JpaCacheInvalidationRepository extends JpaRepository<CacheInvalidationEntity, Long> {
+    List<CacheInvalidationEntity> findByIdGreaterThanOrderByIdAsc(Long id);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CacheInvalidationEntity c")
+    long findMaxId();
+
+    @Modifying
+    @Query("DELETE FROM CacheInvalidationEntity c WHERE c.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
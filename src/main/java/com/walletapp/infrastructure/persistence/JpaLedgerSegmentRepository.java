@@ -0,0 +1,24 @@
+package com.walletapp.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface JpaLedgerSegmentRepository extends JpaRepository<LedgerSegmentEntity, Long> {
+    List<LedgerSegmentEntity> findAllByOrderByIdAsc();
+
+    List<LedgerSegmentEntity> findByCleanedFalseOrderByIdAsc();
+
+    List<LedgerSegmentEntity> findByIdGreaterThanOrderByIdAsc(long id);
+
+    @Query("SELECT MAX(s.id) FROM LedgerSegmentEntity s")
+    Long findMaxId();
+
+    @Modifying
+    @Query("UPDATE LedgerSegmentEntity s SET s.cleaned = true WHERE s.id IN :ids")
+    int markCleaned(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,19 @@
+package com.walletapp.infrastructure.persistence;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface JpaOutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+    // Percorre a chave primária: só há linhas pendentes, as publicadas são apagadas
+    List<OutboxEventEntity> findByOrderByIdAsc(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEventEntity o WHERE o.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,14 @@
+package com.walletapp.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface JpaOutboxRelayLeaseRepository extends JpaRepository<OutboxRelayLeaseEntity, String> {
+    // SKIP LOCKED: se outra réplica segura a linha, devolve vazio na hora em vez de esperar o lock
+    @Query(value = "SELECT name FROM outbox_relay_lease_entity WHERE name = :name FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    Optional<String> lockIfFree(@Param("name") String name);
+}
@@ -0,0 +1,73 @@
+package com.walletapp.infrastructure.persistence;
+
+import com.walletapp.domain.model.Transaction;
+import com.walletapp.domain.model.TransactionCursor;
+import com.walletapp.domain.repository.TransactionHistoryRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Repository
+public class JpaTransactionHistoryRepository implements TransactionHistoryRepository {
+    // Menor id na ordem do banco: a página quente depois do arquivo começa em (cutoff, MIN_ID)
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+    private final JpaTransactionRepository jpaTransactionRepository;
+    private final LedgerArchive ledgerArchive;
+    private final EntityManager entityManager;
+
+    public JpaTransactionHistoryRepository(JpaTransactionRepository jpaTransactionRepository,
+                                           LedgerArchive ledgerArchive,
+                                           EntityManager entityManager) {
+        this.jpaTransactionRepository = jpaTransactionRepository;
+        this.ledgerArchive = ledgerArchive;
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<Transaction> findPage(UUID walletId, TransactionCursor after, int limit) {
+        LocalDateTime cutoff = ledgerArchive.cutoff();
+        if (cutoff == null || (after != null && !after.timestamp().isBefore(cutoff))) {
+            PageRequest page = PageRequest.of(0, limit);
+            List<TransactionEntity> entities = after == null
+                    ? jpaTransactionRepository.findByWalletIdOrderByTimestampAscIdAsc(walletId, page)
+                    : jpaTransactionRepository.findPageAfter(walletId, after.timestamp(), after.id(), page);
+            return entities.stream().map(TransactionEntity::toDomain).toList();
+        }
+        // O cursor está na parte fria: a página começa no arquivo e, se não encher, continua no banco a partir do corte
+        List<Transaction> transactions = new ArrayList<>(ledgerArchive.findPage(walletId, after, limit));
+        if (transactions.size() < limit) {
+            jpaTransactionRepository.findPageAfter(walletId, cutoff, MIN_ID, PageRequest.of(0, limit - transactions.size()))
+                    .forEach(entity -> transactions.add(entity.toDomain()));
+        }
+        return transactions;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void forEach(UUID walletId, Consumer<Transaction> consumer) {
+        LocalDateTime cutoff = ledgerArchive.cutoff();
+        ledgerArchive.scan(walletId, null, transaction -> {
+            consumer.accept(transaction);
+            return true;
+        });
+        try (Stream<TransactionEntity> stream = jpaTransactionRepository.streamByWalletId(walletId)) {
+            stream.forEach(entity -> {
+                // Linhas já arquivadas que a limpeza ainda não apagou
+                if (cutoff == null || !entity.getTimestamp().isBefore(cutoff)) {
+                    consumer.accept(entity.toDomain());
+                }
+                // Sem o detach o contexto de persistência guardaria todas as linhas lidas
+                entityManager.detach(entity);
+            });
+        }
+    }
+}
@@ -1,17 +1,144 @@
 package com.walletapp.infrastructure.persistence;
 
+import jakarta.persistence.QueryHint;
+import com.walletapp.domain.model.TransactionType;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface JpaTransactionRepository extends JpaRepository<TransactionEntity, UUID> {
-    boolean existsByIdempotencyKey(UUID idempotencyKey);
+    String SIGNED_AMOUNT = "CASE WHEN t.type IN (com.walletapp.domain.model.TransactionType.DEPOSIT, " +
+            "com.walletapp.domain.model.TransactionType.TRANSFER_RECEIVED) THEN t.amountMinor ELSE -t.amountMinor END";
+
+    // Coberta pelo índice único (idempotencyKey, walletId): a linha gravada pela primeira chamada com a chave
+    Optional<TransactionEntity> findByIdempotencyKeyAndWalletId(UUID idempotencyKey, UUID walletId);
+
+    // Busca pelo índice único (idempotencyKey, walletId); tipo e valor conferem se a repetição pede a mesma operação
+    @Query("SELECT t.id AS id, t.idempotencyKey AS idempotencyKey, t.walletId AS walletId, t.type AS type, " +
+            "t.amountMinor AS amountMinor, t.timestamp AS timestamp FROM TransactionEntity t " +
+            "WHERE t.idempotencyKey IN :idempotencyKeys")
+    List<ProcessedKey> findProcessedKeys(@Param("idempotencyKeys") Collection<UUID> idempotencyKeys);
+
    // List<TransactionEntity> findByWalletIdAndTimestampBefore(UUID walletId, LocalDateTime timestamp);
     @Query("SELECT t FROM TransactionEntity t WHERE t.walletId = :walletId AND t.timestamp <= :dateTime ORDER BY t.timestamp ASC")
     List<TransactionEntity> findByWalletIdAndTimestampBefore(@Param("walletId") UUID walletId, @Param("dateTime") LocalDateTime dateTime);
 
-}
\ No newline at end of file
+    // Soma com sinal calculada no banco, coberta pelo índice (walletId, timestamp, id, type, amountMinor), em centavos; null se não houver transações
+    @Query("SELECT SUM(" + SIGNED_AMOUNT + ") FROM TransactionEntity t " +
+            "WHERE t.walletId = :walletId AND t.timestamp <= :dateTime")
+    Long sumSignedAmounts(@Param("walletId") UUID walletId, @Param("dateTime") LocalDateTime dateTime);
+
+    // Soma das transações posteriores a um checkpoint, que sempre cobre instantes inteiros
+    @Query("SELECT SUM(" + SIGNED_AMOUNT + ") FROM TransactionEntity t WHERE t.walletId = :walletId " +
+            "AND t.timestamp > :asOf AND t.timestamp <= :dateTime")
+    Long sumSignedAmountsAfterCheckpoint(@Param("walletId") UUID walletId,
+                                         @Param("asOf") LocalDateTime asOf,
+                                         @Param("dateTime") LocalDateTime dateTime);
+
+    // Variantes com corte exclusivo (timestamp < :before), para o saldo de abertura da linha do tempo
+    @Query("SELECT SUM(" + SIGNED_AMOUNT + ") FROM TransactionEntity t " +
+            "WHERE t.walletId = :walletId AND t.timestamp < :before")
+    Long sumSignedAmountsBefore(@Param("walletId") UUID walletId, @Param("before") LocalDateTime before);
+
+    @Query("SELECT SUM(" + SIGNED_AMOUNT + ") FROM TransactionEntity t WHERE t.walletId = :walletId " +
+            "AND t.timestamp > :asOf AND t.timestamp < :before")
+    Long sumSignedAmountsAfterCheckpointBefore(@Param("walletId") UUID walletId,
+                                               @Param("asOf") LocalDateTime asOf,
+                                               @Param("before") LocalDateTime before);
+
+    // Próxima página após a posição (timestamp, id), sem OFFSET: usada pelo extrato
+    @Query("SELECT t FROM TransactionEntity t WHERE t.walletId = :walletId " +
+            "AND (t.timestamp > :timestamp OR (t.timestamp = :timestamp AND t.id > :id)) " +
+            "ORDER BY t.timestamp ASC, t.id ASC")
+    List<TransactionEntity> findPageAfter(@Param("walletId") UUID walletId,
+                                          @Param("timestamp") LocalDateTime timestamp,
+                                          @Param("id") UUID id,
+                                          Pageable pageable);
+
+    List<TransactionEntity> findByWalletIdOrderByTimestampAscIdAsc(UUID walletId, Pageable pageable);
+
+    // Usadas pelos checkpoints, que avançam por instantes inteiros
+    List<TransactionEntity> findByWalletIdAndTimestampAfterOrderByTimestampAscIdAsc(UUID walletId, LocalDateTime after,
+                                                                                    Pageable pageable);
+
+    boolean existsByWalletIdAndTimestampAfter(UUID walletId, LocalDateTime after);
+
+    // Cursor no banco: as linhas são lidas em blocos de fetch size, sem carregar o ledger inteiro
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM TransactionEntity t WHERE t.walletId = :walletId ORDER BY t.timestamp ASC, t.id ASC")
+    Stream<TransactionEntity> streamByWalletId(@Param("walletId") UUID walletId);
+
+    // Valores com sinal de [from, to) na ordem do índice (walletId, timestamp, id, type, amountMinor), sem carregar entidades
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.walletapp.infrastructure.persistence.TimedAmountRow(t.timestamp, " + SIGNED_AMOUNT + ") " +
+            "FROM TransactionEntity t WHERE t.walletId = :walletId AND t.timestamp >= :from AND t.timestamp < :to " +
+            "ORDER BY t.timestamp ASC, t.id ASC")
+    Stream<TimedAmountRow> streamSignedAmountsBetween(@Param("walletId") UUID walletId,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
+
+    @Query("SELECT COUNT(t) FROM TransactionEntity t WHERE t.walletId = :walletId AND t.timestamp > :asOf")
+    long countAfterCheckpoint(@Param("walletId") UUID walletId, @Param("asOf") LocalDateTime asOf);
+
+    long countByWalletId(UUID walletId);
+
+    // since: corte do arquivo frio (nulo sem arquivo); as linhas anteriores já estão somadas no arquivo
+    @Query("SELECT SUM(" + SIGNED_AMOUNT + ") FROM TransactionEntity t WHERE t.walletId = :walletId " +
+            "AND (:since IS NULL OR t.timestamp >= :since)")
+    Long sumSignedAmountsByWalletId(@Param("walletId") UUID walletId, @Param("since") LocalDateTime since);
+
+    // Ledger de um intervalo de carteiras em ordem de walletId, percorrendo o índice (walletId, ...) sem ordenar
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.walletapp.infrastructure.persistence.SignedAmountRow(t.walletId, " + SIGNED_AMOUNT + ") " +
+            "FROM TransactionEntity t WHERE t.walletId BETWEEN :from AND :to " +
+            "AND (:since IS NULL OR t.timestamp >= :since) ORDER BY t.walletId")
+    Stream<SignedAmountRow> streamSignedAmounts(@Param("from") UUID from,
+                                                @Param("to") UUID to,
+                                                @Param("since") LocalDateTime since);
+
+    // Linhas a arquivar, [since, cutoff), na ordem dos segmentos (walletId, timestamp, id)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM TransactionEntity t WHERE t.timestamp < :cutoff " +
+            "AND (:since IS NULL OR t.timestamp >= :since) ORDER BY t.walletId, t.timestamp, t.id")
+    Stream<TransactionEntity> streamForArchive(@Param("since") LocalDateTime since, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM TransactionEntity t WHERE t.walletId IN :walletIds AND t.timestamp < :cutoff")
+    int deleteArchived(@Param("walletIds") Collection<UUID> walletIds, @Param("cutoff") LocalDateTime cutoff);
+
+    interface ProcessedKey {
+        UUID getId();
+        UUID getIdempotencyKey();
+        UUID getWalletId();
+        TransactionType getType();
+        long getAmountMinor();
+        LocalDateTime getTimestamp();
+    }
+}
@@ -1,13 +1,93 @@
 package com.walletapp.infrastructure.persistence;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface JpaWalletRepository extends JpaRepository<WalletEntity, UUID> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<WalletEntity> findById(UUID walletId);
-}
\ No newline at end of file
+    @Query("SELECT w FROM WalletEntity w WHERE w.id = :walletId")
+    Optional<WalletEntity> findByIdForUpdate(@Param("walletId") UUID walletId);
+
+    // Leitura sem lock que traz só a coluna de saldo
+    @Query("SELECT w.balanceMinor FROM WalletEntity w WHERE w.id = :walletId")
+    Optional<Long> findBalanceById(@Param("walletId") UUID walletId);
+
+    // Trava as carteiras sempre na mesma ordem (por id), independentemente da ordem pedida
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM WalletEntity w WHERE w.id IN :walletIds ORDER BY w.id")
+    List<WalletEntity> findAllByIdForUpdate(@Param("walletIds") Collection<UUID> walletIds);
+
+    // Cada UPDATE de saldo corresponde a uma linha do ledger e conta para o próximo checkpoint
+    @Modifying
+    @Query("UPDATE WalletEntity w SET w.balanceMinor = w.balanceMinor + :amountMinor, " +
+            "w.transactionsSinceCheckpoint = w.transactionsSinceCheckpoint + 1, w.version = w.version + 1 " +
+            "WHERE w.id = :walletId")
+    int incrementBalance(@Param("walletId") UUID walletId, @Param("amountMinor") long amountMinor);
+
+    // Só altera se houver saldo; 0 linhas indica carteira inexistente ou saldo insuficiente
+    @Modifying
+    @Query("UPDATE WalletEntity w SET w.balanceMinor = w.balanceMinor - :amountMinor, " +
+            "w.transactionsSinceCheckpoint = w.transactionsSinceCheckpoint + 1, w.version = w.version + 1 " +
+            "WHERE w.id = :walletId AND w.balanceMinor >= :amountMinor")
+    int decrementBalance(@Param("walletId") UUID walletId, @Param("amountMinor") long amountMinor);
+
+    // O UPDATE atômico não devolve a linha; lida logo depois, ainda sob o lock da transação
+    @Query("SELECT new com.walletapp.infrastructure.persistence.BalanceUpdateRow(w.balanceMinor, w.transactionsSinceCheckpoint) " +
+            "FROM WalletEntity w WHERE w.id = :walletId")
+    BalanceUpdateRow findBalanceUpdate(@Param("walletId") UUID walletId);
+
+    @Modifying
+    @Query("UPDATE WalletEntity w SET w.transactionsSinceCheckpoint = :count WHERE w.id = :walletId")
+    int updateTransactionsSinceCheckpoint(@Param("walletId") UUID walletId, @Param("count") int count);
+
+    @Query("SELECT w.id FROM WalletEntity w ORDER BY w.id")
+    Slice<UUID> findAllIds(Pageable pageable);
+
+    // Projeção sem lock: só id e saldo, um único IN para todas as carteiras pedidas
+    @Query("SELECT new com.walletapp.infrastructure.persistence.WalletBalanceRow(w.id, w.balanceMinor) FROM WalletEntity w " +
+            "WHERE w.id IN :walletIds")
+    List<WalletBalanceRow> findBalancesByIdIn(@Param("walletIds") Collection<UUID> walletIds);
+
+    // Coberta pelo índice idx_wallet_user_id
+    @Query("SELECT new com.walletapp.infrastructure.persistence.WalletBalanceRow(w.id, w.balanceMinor) FROM WalletEntity w " +
+            "WHERE w.userId = :userId ORDER BY w.id")
+    List<WalletBalanceRow> findBalancesByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query("SELECT new com.walletapp.infrastructure.persistence.WalletBalanceRow(w.id, w.balanceMinor) FROM WalletEntity w " +
+            "WHERE w.userId = :userId AND w.id > :after ORDER BY w.id")
+    List<WalletBalanceRow> findBalancesByUserIdAfter(@Param("userId") UUID userId, @Param("after") UUID after,
+                                                     Pageable pageable);
+
+    @Query("SELECT MIN(w.id) FROM WalletEntity w")
+    UUID findMinId();
+
+    @Query("SELECT MAX(w.id) FROM WalletEntity w")
+    UUID findMaxId();
+
+    long countByIdBetween(UUID from, UUID to);
+
+    // Cursor sobre um intervalo de ids, para a reconciliação ler milhões de carteiras em memória constante
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.walletapp.infrastructure.persistence.WalletBalanceRow(w.id, w.balanceMinor) FROM WalletEntity w " +
+            "WHERE w.id BETWEEN :from AND :to ORDER BY w.id")
+    Stream<WalletBalanceRow> streamBalances(@Param("from") UUID from, @Param("to") UUID to);
+}
@@ -0,0 +1,152 @@
+package com.walletapp.infrastructure.persistence;
+
+import com.walletapp.domain.model.MinorUnits;
+import com.walletapp.domain.model.Transaction;
+import com.walletapp.domain.model.TransactionCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Parte fria do ledger: as transações anteriores a {@link #cutoff()}, em segmentos gravados pelo
+ * {@link LedgerArchiver}. As consultas de saldo histórico e de extrato leem daqui o que cair antes do corte e do
+ * banco o que vier depois; o banco guarda, por carteira arquivada, um checkpoint com o saldo do fim do arquivo.
+ * <p>
+ * Toda leitura começa por {@link #cutoff()}, que compara o maior id registrado com o último aberto e abre os
+ * segmentos novos: uma réplica passa a ler o que outra arquivou antes de ver as linhas quentes apagadas. O diretório
+ * precisa ser compartilhado entre as réplicas.
+ */
+@Component
+public class LedgerArchive {
+    private final JpaLedgerSegmentRepository jpaLedgerSegmentRepository;
+    private final Path directory;
+    // Lista imutável, trocada inteira: leitores nunca veem uma lista pela metade
+    private volatile List<LedgerSegment> segments = List.of();
+    // Maior id de segmento já aberto; só muda com loading em mãos
+    private volatile long loadedId;
+    private final ReentrantLock loading = new ReentrantLock();
+
+    public LedgerArchive(JpaLedgerSegmentRepository jpaLedgerSegmentRepository,
+                         @Value("${wallet.archive.directory:data/ledger-archive}") Path directory) {
+        this.jpaLedgerSegmentRepository = jpaLedgerSegmentRepository;
+        this.directory = directory;
+        refresh();
+    }
+
+    /**
+     * Abre os segmentos registrados depois da última leitura do registro, por este nó ou por outro.
+     */
+    void refresh() {
+        Long maxId = jpaLedgerSegmentRepository.findMaxId();
+        if (maxId == null || maxId <= loadedId) {
+            return;
+        }
+        loading.lock();
+        try {
+            if (maxId <= loadedId) {
+                return;
+            }
+            List<LedgerSegmentEntity> added = jpaLedgerSegmentRepository.findByIdGreaterThanOrderByIdAsc(loadedId);
+            if (added.isEmpty()) {
+                return;
+            }
+            List<LedgerSegment> current = new ArrayList<>(segments);
+            added.forEach(segment -> current.add(LedgerSegment.open(directory.resolve(segment.getFileName()), segment.getCutoff())));
+            segments = List.copyOf(current);
+            loadedId = added.get(added.size() - 1).getId();
+        } finally {
+            loading.unlock();
+        }
+    }
+
+    /**
+     * Relê o registro antes de responder: as demais leituras da mesma consulta usam os segmentos abertos aqui.
+     *
+     * @return instante antes do qual o ledger está no arquivo frio; nulo se nada foi arquivado
+     */
+    public LocalDateTime cutoff() {
+        refresh();
+        List<LedgerSegment> current = segments;
+        return current.isEmpty() ? null : current.get(current.size() - 1).cutoff();
+    }
+
+    boolean isCold(LocalDateTime dateTime) {
+        LocalDateTime cutoff = cutoff();
+        return cutoff != null && dateTime.isBefore(cutoff);
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    /**
+     * Soma com sinal, em centavos, das transações arquivadas da carteira até {@code dateTime}, inclusive.
+     */
+    long balanceAt(UUID walletId, LocalDateTime dateTime) {
+        long balance = 0;
+        for (LedgerSegment segment : segments) {
+            balance = MinorUnits.add(balance, segment.sumUntil(walletId, dateTime, true));
+        }
+        return balance;
+    }
+
+    /**
+     * Como {@link #balanceAt}, sem as transações do próprio instante {@code before}.
+     */
+    long balanceBefore(UUID walletId, LocalDateTime before) {
+        long balance = 0;
+        for (LedgerSegment segment : segments) {
+            balance = MinorUnits.add(balance, segment.sumUntil(walletId, before, false));
+        }
+        return balance;
+    }
+
+    /**
+     * Soma com sinal, em centavos, de todas as transações arquivadas da carteira.
+     */
+    long archivedBalance(UUID walletId) {
+        long balance = 0;
+        for (LedgerSegment segment : segments) {
+            balance = MinorUnits.add(balance, segment.total(walletId));
+        }
+        return balance;
+    }
+
+    /**
+     * Entrega as transações arquivadas da carteira a partir de {@code from} (nulo para todas), em ordem
+     * (timestamp, id), enquanto {@code action} devolver {@code true}.
+     */
+    void scan(UUID walletId, LocalDateTime from, Predicate<Transaction> action) {
+        for (LedgerSegment segment : segments) {
+            if (!segment.scan(walletId, from, action)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Até {@code limit} transações arquivadas depois da posição {@code after} (nula para o início).
+     */
+    List<Transaction> findPage(UUID walletId, TransactionCursor after, int limit) {
+        List<Transaction> page = new ArrayList<>(Math.min(limit, LedgerSegment.BLOCK_RECORDS));
+        scan(walletId, after == null ? null : after.timestamp(), transaction -> {
+            if (after == null || isAfter(transaction, after)) {
+                page.add(transaction);
+            }
+            return page.size() < limit;
+        });
+        return page;
+    }
+
+    private static boolean isAfter(Transaction transaction, TransactionCursor cursor) {
+        int byTime = transaction.timestamp().compareTo(cursor.timestamp());
+        return byTime > 0 || (byTime == 0 && LedgerReconciler.compareUnsigned(transaction.id(), cursor.id()) > 0);
+    }
+}
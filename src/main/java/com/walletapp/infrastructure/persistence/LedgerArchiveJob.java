@@ -0,0 +1,26 @@
+package com.walletapp.infrastructure.persistence;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Roda o arquivamento do ledger no horário de {@code wallet.archive.cron} (por padrão, às 3h30, depois da
+ * reconciliação). Ativado com {@code wallet.archive.enabled=true}.
+ */
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "wallet.archive.enabled", havingValue = "true")
+public class LedgerArchiveJob {
+    private final LedgerArchiver ledgerArchiver;
+
+    public LedgerArchiveJob(LedgerArchiver ledgerArchiver) {
+        this.ledgerArchiver = ledgerArchiver;
+    }
+
+    @Scheduled(cron = "${wallet.archive.cron:0 30 3 * * *}")
+    public void run() {
+        ledgerArchiver.archive();
+    }
+}
@@ -0,0 +1,270 @@
+package com.walletapp.infrastructure.persistence;
+
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Move para o {@link LedgerArchive} as transações mais antigas que {@code wallet.archive.horizon}.
+ * <p>
+ * Cada execução grava os segmentos, registra-os no banco (a partir daí as leituras frias usam o arquivo) e só então
+ * apaga as linhas quentes, em lotes de {@code wallet.archive.chunk-size} carteiras. No mesmo lote os checkpoints
+ * cobertos pelo arquivo dão lugar a um checkpoint no fim do arquivo, para que o saldo histórico recente continue
+ * sem ler o arquivo. Uma execução interrompida é retomada na seguinte: segmentos sem registro são apagados e
+ * segmentos registrados com limpeza pendente terminam de ser limpos.
+ */
+@Component
+public class LedgerArchiver {
+    private static final Logger logger = LoggerFactory.getLogger(LedgerArchiver.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final String SEGMENT_SUFFIX = ".seg";
+    // O MappedByteBuffer é indexado por int
+    private static final long MAX_SEGMENT_BYTES = Integer.MAX_VALUE;
+    private final JpaTransactionRepository jpaTransactionRepository;
+    private final JpaBalanceCheckpointRepository jpaBalanceCheckpointRepository;
+    private final JpaLedgerSegmentRepository jpaLedgerSegmentRepository;
+    private final LedgerArchive ledgerArchive;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transaction;
+    private final Duration horizon;
+    private final int chunkSize;
+    private final long maxSegmentBytes;
+    // Lock em vez de synchronized: não prende a carrier thread quando o arquivamento roda numa virtual thread
+    private final ReentrantLock archiving = new ReentrantLock();
+
+    public LedgerArchiver(JpaTransactionRepository jpaTransactionRepository,
+                          JpaBalanceCheckpointRepository jpaBalanceCheckpointRepository,
+                          JpaLedgerSegmentRepository jpaLedgerSegmentRepository,
+                          LedgerArchive ledgerArchive,
+                          EntityManager entityManager,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${wallet.archive.horizon:P365D}") Duration horizon,
+                          @Value("${wallet.archive.chunk-size:500}") int chunkSize,
+                          @Value("${wallet.archive.max-segment-bytes:536870912}") long maxSegmentBytes) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("wallet.archive.chunk-size deve ser positivo");
+        }
+        // Um bloco comprimido e o índice ainda entram depois do limite, então ele fica abaixo do máximo mapeável
+        if (maxSegmentBytes <= 0 || maxSegmentBytes > MAX_SEGMENT_BYTES / 2) {
+            throw new IllegalArgumentException("wallet.archive.max-segment-bytes deve estar entre 1 e " + MAX_SEGMENT_BYTES / 2);
+        }
+        this.jpaTransactionRepository = jpaTransactionRepository;
+        this.jpaBalanceCheckpointRepository = jpaBalanceCheckpointRepository;
+        this.jpaLedgerSegmentRepository = jpaLedgerSegmentRepository;
+        this.ledgerArchive = ledgerArchive;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.horizon = horizon;
+        this.chunkSize = chunkSize;
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    /**
+     * Chamadas concorrentes esperam a anterior terminar.
+     *
+     * @return quantidade de transações arquivadas nesta execução
+     */
+    public long archive() {
+        archiving.lock();
+        try {
+            return archiveLocked();
+        } finally {
+            archiving.unlock();
+        }
+    }
+
+    private long archiveLocked() {
+        completePendingCleanup();
+        LocalDateTime cutoff = LocalDateTime.now().minus(horizon).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime previous = ledgerArchive.cutoff();
+        if (previous != null && !cutoff.isAfter(previous)) {
+            logger.info("Arquivamento do ledger ignorado: corte {} não avança sobre o atual {}", cutoff, previous);
+            return 0;
+        }
+        logger.info("Iniciando arquivamento do ledger anterior a {}", cutoff);
+        long start = System.nanoTime();
+        deleteOrphans();
+
+        List<LedgerSegmentEntity> written = write(previous, cutoff);
+        if (written.isEmpty()) {
+            logger.info("Arquivamento do ledger concluído: nenhuma transação anterior a {}", cutoff);
+            return 0;
+        }
+        List<LedgerSegmentEntity> registered;
+        try {
+            registered = transaction.execute(status -> jpaLedgerSegmentRepository.saveAll(written));
+        } catch (RuntimeException e) {
+            written.forEach(segment -> deleteQuietly(ledgerArchive.directory().resolve(segment.getFileName())));
+            throw e;
+        }
+        ledgerArchive.refresh();
+        long wallets = clean(registered);
+
+        long transactions = registered.stream().mapToLong(LedgerSegmentEntity::getTransactions).sum();
+        logger.info("Arquivamento do ledger concluído: {} transações de {} carteiras em {} segmentos em {} ms",
+                transactions, wallets, registered.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return transactions;
+    }
+
+    private void completePendingCleanup() {
+        List<LedgerSegmentEntity> pending = jpaLedgerSegmentRepository.findByCleanedFalseOrderByIdAsc();
+        if (!pending.isEmpty()) {
+            logger.warn("Retomando limpeza de {} segmentos do ledger arquivados por execução interrompida", pending.size());
+            clean(pending);
+        }
+    }
+
+    // Grava [previous, cutoff) em segmentos de até maxSegmentBytes; devolve os segmentos ainda não registrados
+    private List<LedgerSegmentEntity> write(LocalDateTime previous, LocalDateTime cutoff) {
+        List<LedgerSegmentEntity> written = new ArrayList<>();
+        String prefix = "ledger-" + cutoff.format(FILE_TIMESTAMP) + "-";
+        try {
+            Files.createDirectories(ledgerArchive.directory());
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<TransactionEntity> rows = jpaTransactionRepository.streamForArchive(previous, cutoff)) {
+                    LedgerSegmentWriter writer = null;
+                    String fileName = null;
+                    try {
+                        for (Iterator<TransactionEntity> it = rows.iterator(); it.hasNext(); ) {
+                            TransactionEntity row = it.next();
+                            if (writer != null && writer.size() >= maxSegmentBytes) {
+                                writer.close();
+                                written.add(LedgerSegmentEntity.of(fileName, cutoff, writer.transactions()));
+                                writer = null;
+                            }
+                            if (writer == null) {
+                                fileName = prefix + written.size() + SEGMENT_SUFFIX;
+                                writer = new LedgerSegmentWriter(ledgerArchive.directory().resolve(fileName));
+                            }
+                            writer.append(row);
+                            // Sem o detach o contexto de persistência guardaria todas as linhas lidas
+                            entityManager.detach(row);
+                        }
+                        if (writer != null) {
+                            writer.close();
+                            written.add(LedgerSegmentEntity.of(fileName, cutoff, writer.transactions()));
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        if (writer != null) {
+                            writer.abort();
+                        }
+                        throw e instanceof IOException io ? new UncheckedIOException("Falha ao gravar segmento do ledger", io)
+                                : (RuntimeException) e;
+                    }
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao criar diretório do arquivo do ledger: " + ledgerArchive.directory(), e);
+        } catch (RuntimeException e) {
+            // Arquivos parciais (.tmp) ficam para o deleteOrphans da próxima execução
+            written.forEach(segment -> deleteQuietly(ledgerArchive.directory().resolve(segment.getFileName())));
+            throw e;
+        }
+        return written;
+    }
+
+    /**
+     * Apaga as linhas quentes cobertas pelos segmentos de uma execução, trocando os checkpoints anteriores ao corte
+     * por um checkpoint no fim do arquivo de cada carteira. Cada lote de carteiras é uma transação.
+     *
+     * @return quantidade de carteiras limpas
+     */
+    private long clean(List<LedgerSegmentEntity> segments) {
+        LocalDateTime cutoff = segments.get(0).getCutoff();
+        List<LedgerSegment.WalletSummary> chunk = new ArrayList<>(chunkSize);
+        long wallets = 0;
+        // Uma carteira pode continuar no segmento seguinte; vale a última transação dela no último segmento
+        LedgerSegment.WalletSummary pending = null;
+        for (LedgerSegmentEntity entity : segments) {
+            LedgerSegment segment = LedgerSegment.open(ledgerArchive.directory().resolve(entity.getFileName()), cutoff);
+            List<LedgerSegment.WalletSummary> summaries = new ArrayList<>();
+            segment.forEachWallet(summaries::add);
+            for (LedgerSegment.WalletSummary summary : summaries) {
+                if (pending != null && !pending.walletId().equals(summary.walletId())) {
+                    chunk.add(pending);
+                    if (chunk.size() == chunkSize) {
+                        wallets += cleanChunk(chunk, cutoff);
+                        chunk.clear();
+                    }
+                }
+                pending = summary;
+            }
+        }
+        if (pending != null) {
+            chunk.add(pending);
+        }
+        if (!chunk.isEmpty()) {
+            wallets += cleanChunk(chunk, cutoff);
+        }
+        List<Long> ids = segments.stream().map(LedgerSegmentEntity::getId).toList();
+        transaction.executeWithoutResult(status -> jpaLedgerSegmentRepository.markCleaned(ids));
+        return wallets;
+    }
+
+    private int cleanChunk(List<LedgerSegment.WalletSummary> chunk, LocalDateTime cutoff) {
+        List<UUID> walletIds = chunk.stream().map(LedgerSegment.WalletSummary::walletId).toList();
+        transaction.executeWithoutResult(status -> {
+            jpaBalanceCheckpointRepository.deleteBefore(walletIds, cutoff);
+            for (LedgerSegment.WalletSummary summary : chunk) {
+                jpaBalanceCheckpointRepository.save(BalanceCheckpointEntity.at(summary.walletId(), summary.lastTimestamp(),
+                        ledgerArchive.archivedBalance(summary.walletId())));
+            }
+            jpaTransactionRepository.deleteArchived(walletIds, cutoff);
+        });
+        return chunk.size();
+    }
+
+    // Restos de execuções interrompidas: temporários e segmentos que não chegaram a ser registrados
+    private void deleteOrphans() {
+        Path directory = ledgerArchive.directory();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Set<String> registered = jpaLedgerSegmentRepository.findAllByOrderByIdAsc().stream()
+                .map(LedgerSegmentEntity::getFileName)
+                .collect(Collectors.toSet());
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.endsWith(".tmp") || (name.endsWith(SEGMENT_SUFFIX) && !registered.contains(name));
+            }).forEach(file -> {
+                logger.warn("Removendo arquivo órfão do arquivo do ledger: {}", file);
+                deleteQuietly(file);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao listar o diretório do arquivo do ledger: " + directory, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Falha ao remover arquivo do ledger: {}", file, e);
+        }
+    }
+}
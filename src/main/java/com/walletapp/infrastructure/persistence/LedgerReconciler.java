@@ -0,0 +1,232 @@
+package com.walletapp.infrastructure.persistence;
+
+import com.walletapp.domain.model.MinorUnits;
+import com.walletapp.infrastructure.persistence.ReconciliationReport.WalletDrift;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Confere se o saldo de cada carteira é igual à soma com sinal do seu ledger.
+ * <p>
+ * O espaço de ids é dividido ao meio recursivamente (fork/join) até cada intervalo ter no máximo
+ * {@code wallet.reconciliation.range-size} carteiras. Cada intervalo é lido por dois cursores ordenados por
+ * id, carteiras e ledger, e somado num merge join: a memória por worker é o fetch size, não o tamanho do ledger.
+ * <p>
+ * Os cursores não travam nada, então uma mutação concorrente pode aparecer num e não no outro. Por isso cada
+ * divergência é conferida de novo sob o lock da carteira antes de ser reportada.
+ * <p>
+ * Com o ledger arquivado, o cursor do banco só lê as linhas a partir do corte do {@link LedgerArchive}, e cada
+ * carteira começa da soma das suas transações arquivadas, tirada do índice dos segmentos.
+ */
+@Component
+public class LedgerReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(LedgerReconciler.class);
+    private static final int THROTTLE_BATCH = 1000;
+    private final JpaWalletRepository jpaWalletRepository;
+    private final JpaTransactionRepository jpaTransactionRepository;
+    private final LedgerArchive ledgerArchive;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate lockingTransaction;
+    private final int parallelism;
+    private final long rangeSize;
+    private final long maxRowsPerSecond;
+    private final int maxReportedDrifts;
+
+    public LedgerReconciler(JpaWalletRepository jpaWalletRepository,
+                            JpaTransactionRepository jpaTransactionRepository,
+                            LedgerArchive ledgerArchive,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${wallet.reconciliation.parallelism:4}") int parallelism,
+                            @Value("${wallet.reconciliation.range-size:10000}") long rangeSize,
+                            @Value("${wallet.reconciliation.max-rows-per-second:100000}") long maxRowsPerSecond,
+                            @Value("${wallet.reconciliation.max-reported-drifts:1000}") int maxReportedDrifts) {
+        this.jpaWalletRepository = jpaWalletRepository;
+        this.jpaTransactionRepository = jpaTransactionRepository;
+        this.ledgerArchive = ledgerArchive;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.lockingTransaction = new TransactionTemplate(transactionManager);
+        this.parallelism = parallelism;
+        this.rangeSize = rangeSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.maxReportedDrifts = maxReportedDrifts;
+    }
+
+    public ReconciliationReport reconcile() {
+        logger.info("Iniciando reconciliação do ledger");
+        long start = System.nanoTime();
+        Tally tally;
+        UUID first = readOnlyTransaction.execute(status -> jpaWalletRepository.findMinId());
+        if (first == null) {
+            tally = new Tally();
+        } else {
+            UUID last = readOnlyTransaction.execute(status -> jpaWalletRepository.findMaxId());
+            long wallets = readOnlyTransaction.execute(status -> jpaWalletRepository.countByIdBetween(first, last));
+            RowThrottle throttle = new RowThrottle(maxRowsPerSecond);
+            try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+                tally = pool.invoke(new RangeTask(first, last, wallets, throttle));
+            }
+        }
+        ReconciliationReport report = tally.toReport(Duration.ofNanos(System.nanoTime() - start));
+        logger.info("Reconciliação concluída: {} carteiras, {} transações, {} divergentes em {} ms ({} transações/s)",
+                report.wallets(), report.transactions(), report.driftedWallets(), report.elapsed().toMillis(),
+                String.format("%.0f", report.transactionsPerSecond()));
+        return report;
+    }
+
+    private final class RangeTask extends RecursiveTask<Tally> {
+        private final UUID from;
+        private final UUID to;
+        private final long wallets;
+        private final RowThrottle throttle;
+
+        private RangeTask(UUID from, UUID to, long wallets, RowThrottle throttle) {
+            this.from = from;
+            this.to = to;
+            this.wallets = wallets;
+            this.throttle = throttle;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (wallets <= rangeSize || from.equals(to)) {
+                return reconcileRange(from, to, throttle);
+            }
+            BigInteger middle = toNumber(from).add(toNumber(to)).shiftRight(1);
+            UUID leftEnd = toUuid(middle);
+            UUID rightStart = toUuid(middle.add(BigInteger.ONE));
+            long left = readOnlyTransaction.execute(status -> jpaWalletRepository.countByIdBetween(from, leftEnd));
+            // A contagem é uma foto: carteiras novas só deixam o intervalo um pouco maior que o alvo
+            RangeTask right = new RangeTask(rightStart, to, Math.max(0, wallets - left), throttle);
+            right.fork();
+            Tally tally = new RangeTask(from, leftEnd, left, throttle).compute();
+            return tally.merge(right.join());
+        }
+    }
+
+    private Tally reconcileRange(UUID from, UUID to, RowThrottle throttle) {
+        Tally tally = new Tally();
+        List<UUID> suspects = new ArrayList<>();
+        LocalDateTime since = ledgerArchive.cutoff();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<WalletBalanceRow> wallets = jpaWalletRepository.streamBalances(from, to);
+                 Stream<SignedAmountRow> ledger = jpaTransactionRepository.streamSignedAmounts(from, to, since)) {
+                Iterator<SignedAmountRow> entries = ledger.iterator();
+                SignedAmountRow entry = entries.hasNext() ? entries.next() : null;
+                int rows = 0;
+                for (Iterator<WalletBalanceRow> it = wallets.iterator(); it.hasNext(); ) {
+                    WalletBalanceRow wallet = it.next();
+                    // Linhas de carteiras que o cursor de carteiras não viu (criadas depois dele) ficam para trás
+                    while (entry != null && compareUnsigned(entry.walletId(), wallet.walletId()) < 0) {
+                        entry = entries.hasNext() ? entries.next() : null;
+                    }
+                    long ledgerBalance = since == null ? 0L : ledgerArchive.archivedBalance(wallet.walletId());
+                    while (entry != null && entry.walletId().equals(wallet.walletId())) {
+                        ledgerBalance = MinorUnits.add(ledgerBalance, entry.amountMinor());
+                        tally.transactions++;
+                        if (++rows == THROTTLE_BATCH) {
+                            throttle.acquire(rows);
+                            rows = 0;
+                        }
+                        entry = entries.hasNext() ? entries.next() : null;
+                    }
+                    tally.wallets++;
+                    if (wallet.balanceMinor() != ledgerBalance) {
+                        suspects.add(wallet.walletId());
+                    }
+                    if (++rows == THROTTLE_BATCH) {
+                        throttle.acquire(rows);
+                        rows = 0;
+                    }
+                }
+            }
+        });
+        // Fora da transação de leitura: a conferência trava a carteira por um instante
+        for (UUID walletId : suspects) {
+            recheck(walletId).ifPresent(tally::addDrift);
+        }
+        return tally;
+    }
+
+    /**
+     * Sob o lock da carteira nenhuma mutação está pela metade; se a diferença continua, é divergência real.
+     */
+    private Optional<WalletDrift> recheck(UUID walletId) {
+        return lockingTransaction.execute(status -> jpaWalletRepository.findByIdForUpdate(walletId)
+                .flatMap(wallet -> {
+                    LocalDateTime since = ledgerArchive.cutoff();
+                    Long sum = jpaTransactionRepository.sumSignedAmountsByWalletId(walletId, since);
+                    long archived = since == null ? 0L : ledgerArchive.archivedBalance(walletId);
+                    long ledgerBalance = MinorUnits.add(archived, sum == null ? 0L : sum);
+                    if (wallet.getBalanceMinor() == ledgerBalance) {
+                        return Optional.empty();
+                    }
+                    WalletDrift drift = new WalletDrift(walletId, MinorUnits.toDecimal(wallet.getBalanceMinor()),
+                            MinorUnits.toDecimal(ledgerBalance));
+                    logger.warn("Saldo divergente do ledger na carteira: {} (saldo {}, ledger {})",
+                            walletId, drift.balance(), drift.ledgerBalance());
+                    return Optional.of(drift);
+                }));
+    }
+
+    // Ordem de UUID do banco: os 128 bits como inteiro sem sinal (UUID.compareTo compara com sinal)
+    static int compareUnsigned(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    static BigInteger toNumber(UUID id) {
+        return new BigInteger(Long.toUnsignedString(id.getMostSignificantBits())).shiftLeft(64)
+                .or(new BigInteger(Long.toUnsignedString(id.getLeastSignificantBits())));
+    }
+
+    static UUID toUuid(BigInteger number) {
+        return new UUID(number.shiftRight(64).longValue(), number.longValue());
+    }
+
+    private final class Tally {
+        private long wallets;
+        private long transactions;
+        private long driftedWallets;
+        private final List<WalletDrift> drifts = new ArrayList<>();
+
+        private void addDrift(WalletDrift drift) {
+            driftedWallets++;
+            if (drifts.size() < maxReportedDrifts) {
+                drifts.add(drift);
+            }
+        }
+
+        private Tally merge(Tally other) {
+            wallets += other.wallets;
+            transactions += other.transactions;
+            driftedWallets += other.driftedWallets;
+            for (WalletDrift drift : other.drifts) {
+                if (drifts.size() < maxReportedDrifts) {
+                    drifts.add(drift);
+                }
+            }
+            return this;
+        }
+
+        private ReconciliationReport toReport(Duration elapsed) {
+            return new ReconciliationReport(wallets, transactions, driftedWallets, List.copyOf(drifts), elapsed);
+        }
+    }
+}
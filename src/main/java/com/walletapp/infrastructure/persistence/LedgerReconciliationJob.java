@@ -0,0 +1,26 @@
+package com.walletapp.infrastructure.persistence;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Roda a reconciliação do ledger no horário de {@code wallet.reconciliation.cron} (por padrão, às 3h).
+ * Ativada com {@code wallet.reconciliation.enabled=true}.
+ */
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "wallet.reconciliation.enabled", havingValue = "true")
+public class LedgerReconciliationJob {
+    private final LedgerReconciler ledgerReconciler;
+
+    public LedgerReconciliationJob(LedgerReconciler ledgerReconciler) {
+        this.ledgerReconciler = ledgerReconciler;
+    }
+
+    @Scheduled(cron = "${wallet.reconciliation.cron:0 0 3 * * *}")
+    public void run() {
+        ledgerReconciler.reconcile();
+    }
+}
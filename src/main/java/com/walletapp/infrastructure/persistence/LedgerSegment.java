@@ -0,0 +1,242 @@
+package com.walletapp.infrastructure.persistence;
+
+import com.walletapp.domain.model.MinorUnits;
+import com.walletapp.domain.model.Transaction;
+import com.walletapp.domain.model.TransactionType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Segmento do arquivo frio do ledger, lido por memória mapeada.
+ * <p>
+ * Formato: cabeçalho, blocos comprimidos com deflate (cada um com até {@link #BLOCK_RECORDS} transações de uma única
+ * carteira, em ordem (timestamp, id)), índice de blocos e rodapé. O índice tem uma entrada de tamanho fixo por bloco,
+ * em ordem de (walletId, timestamp), com a soma com sinal do bloco: a soma de um período só descomprime o bloco em
+ * que o período termina, os demais entram pela soma do índice.
+ */
+final class LedgerSegment {
+    static final int MAGIC = 0x4C474731;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    // indexOffset (long), entries (int), MAGIC (int)
+    static final int FOOTER_BYTES = 16;
+    static final int BLOCK_RECORDS = 1024;
+    // id (16), timestamp em micros (8), amountMinor (8), idempotencyKey (16), type (1)
+    static final int RECORD_BYTES = 49;
+    // walletId (16), primeiro e último timestamp (16), último id (16), offset (8), soma (8), tamanho (4), quantidade (4)
+    static final int ENTRY_BYTES = 72;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path path;
+    private final LocalDateTime cutoff;
+    private final MappedByteBuffer data;
+    private final int indexOffset;
+    private final int entries;
+
+    private LedgerSegment(Path path, LocalDateTime cutoff, MappedByteBuffer data) {
+        this.path = path;
+        this.cutoff = cutoff;
+        this.data = data;
+        int footer = data.capacity() - FOOTER_BYTES;
+        if (data.capacity() < HEADER_BYTES + FOOTER_BYTES || data.getInt(0) != MAGIC || data.getInt(footer + 12) != MAGIC) {
+            throw new IllegalStateException("Segmento do ledger inválido: " + path);
+        }
+        this.indexOffset = Math.toIntExact(data.getLong(footer));
+        this.entries = data.getInt(footer + 8);
+    }
+
+    /**
+     * @param cutoff o segmento só tem transações anteriores a este instante
+     */
+    static LedgerSegment open(Path path, LocalDateTime cutoff) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // O mapeamento continua válido depois que o canal é fechado
+            return new LedgerSegment(path, cutoff, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir segmento do ledger: " + path, e);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    LocalDateTime cutoff() {
+        return cutoff;
+    }
+
+    /**
+     * Soma com sinal, em centavos, das transações da carteira neste segmento.
+     */
+    long total(UUID walletId) {
+        long sum = 0;
+        for (int entry = firstEntry(walletId); entry < entries && isWallet(entry, walletId); entry++) {
+            sum = MinorUnits.add(sum, entryLong(entry, 56));
+        }
+        return sum;
+    }
+
+    /**
+     * Soma com sinal, em centavos, das transações da carteira até {@code bound}.
+     *
+     * @param inclusive se as transações do próprio instante {@code bound} entram na soma
+     */
+    long sumUntil(UUID walletId, LocalDateTime bound, boolean inclusive) {
+        long limit = toMicros(bound);
+        long sum = 0;
+        for (int entry = firstEntry(walletId); entry < entries && isWallet(entry, walletId); entry++) {
+            long first = entryLong(entry, 16);
+            long last = entryLong(entry, 24);
+            if (inclusive ? last <= limit : last < limit) {
+                sum = MinorUnits.add(sum, entryLong(entry, 56));
+                continue;
+            }
+            if (inclusive ? first <= limit : first < limit) {
+                ByteBuffer block = inflate(entry);
+                for (int offset = 0; offset < block.limit(); offset += RECORD_BYTES) {
+                    long micros = block.getLong(offset + 16);
+                    if (inclusive ? micros > limit : micros >= limit) {
+                        break;
+                    }
+                    sum = MinorUnits.add(sum, signedAmount(block, offset));
+                }
+            }
+            break;
+        }
+        return sum;
+    }
+
+    /**
+     * Entrega as transações da carteira a partir de {@code from} (inclusive; nulo para todas), em ordem
+     * (timestamp, id), enquanto {@code action} devolver {@code true}.
+     *
+     * @return {@code false} se {@code action} interrompeu a leitura
+     */
+    boolean scan(UUID walletId, LocalDateTime from, Predicate<Transaction> action) {
+        long start = from == null ? Long.MIN_VALUE : toMicros(from);
+        for (int entry = firstEntry(walletId); entry < entries && isWallet(entry, walletId); entry++) {
+            if (entryLong(entry, 24) < start) {
+                continue;
+            }
+            ByteBuffer block = inflate(entry);
+            for (int offset = 0; offset < block.limit(); offset += RECORD_BYTES) {
+                if (block.getLong(offset + 16) >= start && !action.test(decode(walletId, block, offset))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Entrega, para cada carteira do segmento, em ordem de id, o instante da sua última transação e a soma das suas
+     * transações.
+     */
+    void forEachWallet(Consumer<WalletSummary> consumer) {
+        int entry = 0;
+        while (entry < entries) {
+            UUID walletId = new UUID(entryLong(entry, 0), entryLong(entry, 8));
+            long sum = 0;
+            int last = entry;
+            for (; entry < entries && isWallet(entry, walletId); entry++) {
+                sum = MinorUnits.add(sum, entryLong(entry, 56));
+                last = entry;
+            }
+            consumer.accept(new WalletSummary(walletId, fromMicros(entryLong(last, 24)), sum));
+        }
+    }
+
+    record WalletSummary(UUID walletId, LocalDateTime lastTimestamp, long sumMinor) {
+    }
+
+    // Primeira entrada com walletId >= o pedido, na ordem sem sinal do banco
+    private int firstEntry(UUID walletId) {
+        int low = 0;
+        int high = entries;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareWallet(middle, walletId) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int compareWallet(int entry, UUID walletId) {
+        int high = Long.compareUnsigned(entryLong(entry, 0), walletId.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(entryLong(entry, 8), walletId.getLeastSignificantBits());
+    }
+
+    private boolean isWallet(int entry, UUID walletId) {
+        return entryLong(entry, 0) == walletId.getMostSignificantBits() && entryLong(entry, 8) == walletId.getLeastSignificantBits();
+    }
+
+    // Leituras absolutas: não mexem na posição do buffer, então várias threads podem ler o mesmo segmento
+    private long entryLong(int entry, int field) {
+        return data.getLong(indexOffset + entry * ENTRY_BYTES + field);
+    }
+
+    private ByteBuffer inflate(int entry) {
+        int offset = Math.toIntExact(entryLong(entry, 48));
+        int length = data.getInt(indexOffset + entry * ENTRY_BYTES + 64);
+        int count = data.getInt(indexOffset + entry * ENTRY_BYTES + 68);
+        ByteBuffer block = ByteBuffer.allocate(count * RECORD_BYTES);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data.slice(offset, length));
+            while (block.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(block) == 0 && inflater.needsInput()) {
+                    break;
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Bloco corrompido no segmento do ledger: " + path, e);
+        } finally {
+            inflater.end();
+        }
+        if (block.hasRemaining()) {
+            throw new IllegalStateException("Bloco truncado no segmento do ledger: " + path);
+        }
+        return block.flip();
+    }
+
+    private static long signedAmount(ByteBuffer block, int offset) {
+        long amount = block.getLong(offset + 24);
+        return TYPES[block.get(offset + 48)].isCredit() ? amount : -amount;
+    }
+
+    private static Transaction decode(UUID walletId, ByteBuffer block, int offset) {
+        return new Transaction(
+                new UUID(block.getLong(offset), block.getLong(offset + 8)),
+                walletId,
+                MinorUnits.toDecimal(block.getLong(offset + 24)),
+                TYPES[block.get(offset + 48)],
+                fromMicros(block.getLong(offset + 16)),
+                new UUID(block.getLong(offset + 32), block.getLong(offset + 40)));
+    }
+
+    // O banco guarda o timestamp com precisão de microssegundos
+    static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
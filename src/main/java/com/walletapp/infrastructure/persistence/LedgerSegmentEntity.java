@@ -0,0 +1,38 @@
+package com.walletapp.infrastructure.persistence;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de um segmento do arquivo frio do ledger. Um segmento só é lido depois de registrado aqui, e as linhas
+ * quentes só são apagadas depois do registro: um arquivo sem registro é resto de uma execução interrompida.
+ */
+@Entity
+@Data
+public class LedgerSegmentEntity {
+    // IDENTITY: a ordem de id é a ordem de gravação, em que os segmentos são lidos
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String fileName;
+    // Todas as transações com timestamp anterior a cutoff estão no arquivo frio
+    private LocalDateTime cutoff;
+    private long transactions;
+    // Falso enquanto as linhas quentes arquivadas ainda não foram todas apagadas
+    private boolean cleaned;
+    private LocalDateTime createdAt;
+
+    public static LedgerSegmentEntity of(String fileName, LocalDateTime cutoff, long transactions) {
+        LedgerSegmentEntity entity = new LedgerSegmentEntity();
+        entity.setFileName(fileName);
+        entity.setCutoff(cutoff);
+        entity.setTransactions(transactions);
+        entity.setCreatedAt(LocalDateTime.now());
+        return entity;
+    }
+}
@@ -0,0 +1,182 @@
+package com.walletapp.infrastructure.persistence;
+
+import com.walletapp.domain.model.MinorUnits;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+import static com.walletapp.infrastructure.persistence.LedgerSegment.BLOCK_RECORDS;
+import static com.walletapp.infrastructure.persistence.LedgerSegment.RECORD_BYTES;
+
+/**
+ * Grava um {@link LedgerSegment}. As transações precisam chegar em ordem (walletId, timestamp, id); o arquivo é
+ * escrito com extensão .tmp e só ganha o nome final em {@link #close()}, depois do fsync, então um segmento com o
+ * nome final está sempre completo.
+ * <p>
+ * O índice vai para um arquivo auxiliar durante a escrita e é copiado para o fim do segmento ao fechar, sem ficar
+ * em memória.
+ */
+final class LedgerSegmentWriter implements AutoCloseable {
+    private final Path target;
+    private final Path temporary;
+    private final Path indexFile;
+    private final FileChannel channel;
+    private final DataOutputStream index;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final ByteBuffer block = ByteBuffer.allocate(BLOCK_RECORDS * RECORD_BYTES);
+    private final ByteBuffer compressed = ByteBuffer.allocate(64 * 1024);
+    private int entries;
+    private long transactions;
+    private UUID walletId;
+    private int count;
+    private long firstMicros;
+    private long lastMicros;
+    private UUID lastId;
+    private long sum;
+
+    LedgerSegmentWriter(Path target) throws IOException {
+        this.target = target;
+        this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        this.indexFile = target.resolveSibling(target.getFileName() + ".idx.tmp");
+        this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        this.index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)));
+        ByteBuffer header = ByteBuffer.allocate(LedgerSegment.HEADER_BYTES)
+                .putInt(LedgerSegment.MAGIC)
+                .putInt(LedgerSegment.VERSION)
+                .flip();
+        write(header);
+    }
+
+    void append(TransactionEntity transaction) throws IOException {
+        if (count == BLOCK_RECORDS || (walletId != null && !walletId.equals(transaction.getWalletId()))) {
+            flushBlock();
+        }
+        long micros = LedgerSegment.toMicros(transaction.getTimestamp());
+        if (count == 0) {
+            walletId = transaction.getWalletId();
+            firstMicros = micros;
+        }
+        block.putLong(transaction.getId().getMostSignificantBits())
+                .putLong(transaction.getId().getLeastSignificantBits())
+                .putLong(micros)
+                .putLong(transaction.getAmountMinor())
+                .putLong(transaction.getIdempotencyKey().getMostSignificantBits())
+                .putLong(transaction.getIdempotencyKey().getLeastSignificantBits())
+                .put((byte) transaction.getType().ordinal());
+        lastMicros = micros;
+        lastId = transaction.getId();
+        sum = MinorUnits.add(sum, transaction.signedAmountMinor());
+        count++;
+        transactions++;
+    }
+
+    /**
+     * Tamanho atual do arquivo, para decidir quando começar outro segmento; só muda a cada bloco fechado. Uma
+     * carteira pode continuar no segmento seguinte: a ordem entre segmentos é a ordem de gravação.
+     */
+    long size() throws IOException {
+        return channel.position();
+    }
+
+    long transactions() {
+        return transactions;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBlock();
+            index.close();
+            long indexOffset = channel.position();
+            try (FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+                long copied = 0;
+                long length = indexChannel.size();
+                while (copied < length) {
+                    copied += indexChannel.transferTo(copied, length - copied, channel);
+                }
+            }
+            ByteBuffer footer = ByteBuffer.allocate(LedgerSegment.FOOTER_BYTES)
+                    .putLong(indexOffset)
+                    .putInt(entries)
+                    .putInt(LedgerSegment.MAGIC)
+                    .flip();
+            write(footer);
+            channel.force(true);
+        } finally {
+            channel.close();
+            deflater.end();
+            Files.deleteIfExists(indexFile);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Descarta o segmento em gravação, sem chegar ao nome final.
+     */
+    void abort() {
+        try {
+            channel.close();
+            index.close();
+        } catch (IOException ignored) {
+            // Os temporários são removidos abaixo ou na próxima execução
+        } finally {
+            deflater.end();
+        }
+        try {
+            Files.deleteIfExists(temporary);
+            Files.deleteIfExists(indexFile);
+        } catch (IOException ignored) {
+            // Sobram como .tmp, removidos na próxima execução
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        long offset = channel.position();
+        int length = 0;
+        block.flip();
+        deflater.reset();
+        deflater.setInput(block);
+        deflater.finish();
+        while (!deflater.finished()) {
+            compressed.clear();
+            deflater.deflate(compressed);
+            compressed.flip();
+            length += compressed.remaining();
+            write(compressed);
+        }
+        block.clear();
+
+        index.writeLong(walletId.getMostSignificantBits());
+        index.writeLong(walletId.getLeastSignificantBits());
+        index.writeLong(firstMicros);
+        index.writeLong(lastMicros);
+        index.writeLong(lastId.getMostSignificantBits());
+        index.writeLong(lastId.getLeastSignificantBits());
+        index.writeLong(offset);
+        index.writeLong(sum);
+        index.writeInt(length);
+        index.writeInt(count);
+        entries++;
+        count = 0;
+        sum = 0;
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.walletapp.infrastructure.persistence;
+
+import com.walletapp.domain.model.BalanceChangeEvent;
+import com.walletapp.domain.model.MinorUnits;
+import com.walletapp.domain.model.TransactionType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Data
+public class OutboxEventEntity {
+    // IDENTITY, sem pool de ids por nó: a linha é inserida depois de a mutação anterior da carteira ter sido
+    // confirmada (lock da linha, ou versão no modo otimista), então os ids de uma carteira crescem na ordem de commit
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private UUID walletId;
+    private long deltaMinor;
+    private long balanceMinor;
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+    private UUID idempotencyKey;
+    private LocalDateTime occurredAt;
+
+    public static OutboxEventEntity fromDomain(BalanceChangeEvent event) {
+        OutboxEventEntity entity = new OutboxEventEntity();
+        entity.setWalletId(event.walletId());
+        entity.setDeltaMinor(MinorUnits.of(event.delta()));
+        entity.setBalanceMinor(MinorUnits.of(event.newBalance()));
+        entity.setType(event.type());
+        entity.setIdempotencyKey(event.idempotencyKey());
+        entity.setOccurredAt(event.occurredAt());
+        return entity;
+    }
+
+    public BalanceChangeEvent toDomain() {
+        return new BalanceChangeEvent(id, walletId, MinorUnits.toDecimal(deltaMinor), MinorUnits.toDecimal(balanceMinor),
+                type, idempotencyKey, occurredAt);
+    }
+}
@@ -0,0 +1,33 @@
+package com.walletapp.infrastructure.persistence;
+
+import com.walletapp.application.service.WalletMetrics;
+import com.walletapp.domain.model.BalanceChangeEvent;
+import com.walletapp.domain.repository.OutboxRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public class OutboxJpaRepository implements OutboxRepository {
+    private final EntityManager entityManager;
+    private final WalletMetrics walletMetrics;
+
+    public OutboxJpaRepository(EntityManager entityManager, WalletMetrics walletMetrics) {
+        this.entityManager = entityManager;
+        this.walletMetrics = walletMetrics;
+    }
+
+    // MANDATORY: um evento gravado fora da transação da mutação poderia sobreviver ao rollback dela
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void append(List<BalanceChangeEvent> events) {
+        walletMetrics.repository("appendOutbox", () -> {
+            for (BalanceChangeEvent event : events) {
+                entityManager.persist(OutboxEventEntity.fromDomain(event));
+            }
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.walletapp.infrastructure.persistence;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+/**
+ * Linha travada pelo relay do outbox enquanto publica um lote: só a réplica que a segura lê e apaga o outbox.
+ */
+@Entity
+@Data
+public class OutboxRelayLeaseEntity {
+    @Id
+    private String name;
+
+    public static OutboxRelayLeaseEntity of(String name) {
+        OutboxRelayLeaseEntity entity = new OutboxRelayLeaseEntity();
+        entity.setName(name);
+        return entity;
+    }
+}
@@ -0,0 +1,30 @@
+package com.walletapp.infrastructure.persistence;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado de uma reconciliação: quantas carteiras e linhas do ledger foram lidas, quantas carteiras divergem
+ * e as primeiras divergências encontradas (limitadas por {@code wallet.reconciliation.max-reported-drifts}).
+ */
+public record ReconciliationReport(long wallets, long transactions, long driftedWallets, List<WalletDrift> drifts,
+                                   Duration elapsed) {
+
+    public double walletsPerSecond() {
+        return perSecond(wallets);
+    }
+
+    public double transactionsPerSecond() {
+        return perSecond(transactions);
+    }
+
+    private double perSecond(long count) {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : count * 1_000_000_000.0 / nanos;
+    }
+
+    public record WalletDrift(UUID walletId, BigDecimal balance, BigDecimal ledgerBalance) {
+    }
+}
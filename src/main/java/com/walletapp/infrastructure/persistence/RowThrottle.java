@@ -0,0 +1,33 @@
+package com.walletapp.infrastructure.persistence;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Limita quantas linhas por segundo todos os workers juntos podem ler. Cada chamada reserva a próxima janela
+ * livre e espera até ela chegar; sem lock, e {@code parkNanos} não prende virtual threads.
+ */
+final class RowThrottle {
+    private final long nanosPerRow;
+    private final AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param rowsPerSecond 0 ou negativo desliga o limite
+     */
+    RowThrottle(long rowsPerSecond) {
+        this.nanosPerRow = rowsPerSecond <= 0 ? 0 : Math.max(1, 1_000_000_000L / rowsPerSecond);
+    }
+
+    void acquire(int rows) {
+        if (nanosPerRow == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long cost = rows * nanosPerRow;
+        long slot = nextSlot.getAndAccumulate(cost, (next, c) -> Math.max(next, now) + c);
+        long wait = slot - now;
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+}
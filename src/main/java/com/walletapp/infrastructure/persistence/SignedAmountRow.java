@@ -0,0 +1,9 @@
+package com.walletapp.infrastructure.persistence;
+
+import java.util.UUID;
+
+/**
+ * Valor com sinal de uma linha do ledger, em centavos.
+ */
+public record SignedAmountRow(UUID walletId, long amountMinor) {
+}
@@ -0,0 +1,9 @@
+package com.walletapp.infrastructure.persistence;
+
+import java.time.LocalDateTime;
+
+/**
+ * Valor com sinal de uma linha do ledger de uma carteira, em centavos, com o seu timestamp.
+ */
+public record TimedAmountRow(LocalDateTime timestamp, long amountMinor) {
+}
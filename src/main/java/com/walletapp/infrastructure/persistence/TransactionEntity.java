@@ -1,24 +1,36 @@
 package com.walletapp.infrastructure.persistence;
 
+import com.walletapp.domain.model.MinorUnits;
 import com.walletapp.domain.model.Transaction;
 import com.walletapp.domain.model.TransactionType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(
+        // O id logo após o timestamp deixa a ordem (timestamp, id) dos cursores inteira no índice
+        indexes = @Index(name = "idx_transaction_wallet_timestamp", columnList = "walletId, timestamp, id, type, amountMinor"),
+        // Por carteira, já que uma transferência grava duas linhas (uma em cada carteira) com a mesma chave
+        uniqueConstraints = @UniqueConstraint(name = TransactionEntity.IDEMPOTENCY_CONSTRAINT, columnNames = {"idempotencyKey", "walletId"})
+)
 @Data
 public class TransactionEntity {
+    static final String IDEMPOTENCY_CONSTRAINT = "uk_transaction_idempotency_wallet";
+
     @Id
     private UUID id;
     private UUID walletId;
-    private BigDecimal amount;
+    // Centavos (MinorUnits): a soma do saldo histórico e os checkpoints operam sobre long, sem BigDecimal
+    private long amountMinor;
     @Enumerated(EnumType.STRING)
     private TransactionType type;
     private LocalDateTime timestamp;
@@ -28,10 +40,18 @@ public class TransactionEntity {
         TransactionEntity entity = new TransactionEntity();
         entity.setId(transaction.id());
         entity.setWalletId(transaction.walletId());
-        entity.setAmount(transaction.amount());
+        entity.setAmountMinor(MinorUnits.of(transaction.amount()));
         entity.setType(transaction.type());
         entity.setTimestamp(transaction.timestamp());
         entity.setIdempotencyKey(transaction.idempotencyKey());
         return entity;
     }
+
+    public Transaction toDomain() {
+        return new Transaction(id, walletId, MinorUnits.toDecimal(amountMinor), type, timestamp, idempotencyKey);
+    }
+
+    public long signedAmountMinor() {
+        return type.isCredit() ? amountMinor : -amountMinor;
+    }
 }
\ No newline at end of file
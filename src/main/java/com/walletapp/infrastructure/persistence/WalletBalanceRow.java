@@ -0,0 +1,15 @@
+package com.walletapp.infrastructure.persistence;
+
+import com.walletapp.domain.model.MinorUnits;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Id e saldo de uma carteira, lidos sem carregar a entidade (sem contexto de persistência a crescer).
+ */
+public record WalletBalanceRow(UUID walletId, long balanceMinor) {
+    public BigDecimal balance() {
+        return MinorUnits.toDecimal(balanceMinor);
+    }
+}
@@ -3,31 +3,40 @@ package com.walletapp.infrastructure.persistence;
 import com.walletapp.domain.model.Wallet;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = @Index(name = "idx_wallet_user_id", columnList = "userId"))
 @Data
 public class WalletEntity {
     @Id
     private UUID id;
     private UUID userId;
-    private BigDecimal balance;
+    // Centavos, como o ledger (MinorUnits)
+    private long balanceMinor;
     private LocalDateTime createdAt;
+    private int transactionsSinceCheckpoint;
+    @Version
+    private Long version;
 
     public static WalletEntity fromDomain(Wallet wallet) {
         WalletEntity entity = new WalletEntity();
         entity.setId(wallet.getId());
         entity.setUserId(wallet.getUserId());
-        entity.setBalance(wallet.getBalance());
+        entity.setBalanceMinor(wallet.getBalanceMinor());
         entity.setCreatedAt(wallet.getCreatedAt());
+        entity.setVersion(wallet.getVersion());
+        entity.setTransactionsSinceCheckpoint(wallet.getTransactionsSinceCheckpoint());
         return entity;
     }
 
     public Wallet toDomain() {
-        return new Wallet(this.id, this.userId, this.balance, this.createdAt);
+        return new Wallet(this.id, this.userId, this.balanceMinor, this.createdAt, this.version, this.transactionsSinceCheckpoint);
     }
 }
\ No newline at end of file
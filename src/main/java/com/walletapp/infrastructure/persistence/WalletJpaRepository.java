@@ -1,70 +1,331 @@
 package com.walletapp.infrastructure.persistence;
 
+import com.walletapp.application.service.WalletMetrics;
+import com.walletapp.domain.exception.DuplicateOperationException;
+import com.walletapp.domain.model.BalancePoint;
+import com.walletapp.domain.model.MinorUnits;
+import com.walletapp.domain.model.ProcessedOperation;
+import com.walletapp.domain.model.TimelineInterval;
 import com.walletapp.domain.model.Transaction;
 import com.walletapp.domain.model.Wallet;
 import com.walletapp.domain.repository.WalletRepository;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 public class WalletJpaRepository implements WalletRepository {
     private final JpaWalletRepository jpaWalletRepository;
     private final JpaTransactionRepository jpaTransactionRepository;
+    private final JpaBalanceCheckpointRepository jpaBalanceCheckpointRepository;
+    private final BalanceCheckpointManager balanceCheckpointManager;
+    private final LedgerArchive ledgerArchive;
+    private final EntityManager entityManager;
+    private final WalletMetrics walletMetrics;
 
-    public WalletJpaRepository(JpaWalletRepository jpaWalletRepository, JpaTransactionRepository jpaTransactionRepository) {
+    public WalletJpaRepository(JpaWalletRepository jpaWalletRepository,
+                               JpaTransactionRepository jpaTransactionRepository,
+                               JpaBalanceCheckpointRepository jpaBalanceCheckpointRepository,
+                               BalanceCheckpointManager balanceCheckpointManager,
+                               LedgerArchive ledgerArchive,
+                               EntityManager entityManager,
+                               WalletMetrics walletMetrics) {
         this.jpaWalletRepository = jpaWalletRepository;
         this.jpaTransactionRepository = jpaTransactionRepository;
+        this.jpaBalanceCheckpointRepository = jpaBalanceCheckpointRepository;
+        this.balanceCheckpointManager = balanceCheckpointManager;
+        this.ledgerArchive = ledgerArchive;
+        this.entityManager = entityManager;
+        this.walletMetrics = walletMetrics;
     }
 
     @Transactional
     @Override
     public Wallet save(Wallet wallet) {
-        WalletEntity entity = WalletEntity.fromDomain(wallet);
-        WalletEntity savedEntity = jpaWalletRepository.save(entity);
-        return savedEntity.toDomain();
+        return walletMetrics.repository("save", () -> {
+            WalletEntity entity = WalletEntity.fromDomain(wallet);
+            WalletEntity savedEntity = jpaWalletRepository.save(entity);
+            // As transações da carteira já foram gravadas; o contador zerado sai no mesmo UPDATE do saldo
+            if (balanceCheckpointManager.isDue(savedEntity.getTransactionsSinceCheckpoint())) {
+                savedEntity.setTransactionsSinceCheckpoint(balanceCheckpointManager.checkpointDue(wallet.getId()));
+            }
+            return savedEntity.toDomain();
+        });
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
     public Optional<Wallet> findById(UUID walletId) {
-        return jpaWalletRepository.findById(walletId).map(WalletEntity::toDomain);
+        return walletMetrics.repository("findById", () -> jpaWalletRepository.findById(walletId).map(WalletEntity::toDomain));
+    }
+
+    @Transactional
+    @Override
+    public Optional<Wallet> findByIdForUpdate(UUID walletId) {
+        return walletMetrics.repository("findByIdForUpdate", () -> walletMetrics.lockingQuery("findByIdForUpdate",
+                () -> jpaWalletRepository.findBalanceById(walletId),
+                () -> jpaWalletRepository.findByIdForUpdate(walletId)).map(WalletEntity::toDomain));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<BigDecimal> findBalanceById(UUID walletId) {
+        return walletMetrics.repository("findBalanceById", () -> jpaWalletRepository.findBalanceById(walletId).map(MinorUnits::toDecimal));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<UUID, BigDecimal> findBalancesByIds(Collection<UUID> walletIds) {
+        return walletMetrics.repository("findBalancesByIds", () -> jpaWalletRepository.findBalancesByIdIn(walletIds).stream()
+                .collect(Collectors.toMap(WalletBalanceRow::walletId, WalletBalanceRow::balance)));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<UUID, BigDecimal> findBalancesByUserId(UUID userId, UUID after, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return walletMetrics.repository("findBalancesByUserId", () -> (after == null
+                ? jpaWalletRepository.findBalancesByUserId(userId, page)
+                : jpaWalletRepository.findBalancesByUserIdAfter(userId, after, page)).stream()
+                .collect(Collectors.toMap(WalletBalanceRow::walletId, WalletBalanceRow::balance,
+                        (first, second) -> first, LinkedHashMap::new)));
+    }
+
+    @Transactional
+    @Override
+    public Map<UUID, Wallet> findAllByIdForUpdate(Collection<UUID> walletIds) {
+        return walletMetrics.repository("findAllByIdForUpdate", () -> walletMetrics.lockingQuery("findAllByIdForUpdate",
+                        () -> jpaWalletRepository.findBalancesByIdIn(walletIds),
+                        () -> jpaWalletRepository.findAllByIdForUpdate(walletIds)).stream()
+                .collect(Collectors.toMap(WalletEntity::getId, WalletEntity::toDomain)));
+    }
+
+    @Transactional
+    @Override
+    public OptionalLong applyDeposit(UUID walletId, long amountMinor) {
+        // O UPDATE espera o lock da linha como um SELECT ... FOR UPDATE
+        return walletMetrics.repository("applyDeposit", () -> {
+            int updated = walletMetrics.lockingQuery("applyDeposit", () -> jpaWalletRepository.findBalanceById(walletId),
+                    () -> jpaWalletRepository.incrementBalance(walletId, amountMinor));
+            return updated == 1 ? OptionalLong.of(afterUpdate(walletId)) : OptionalLong.empty();
+        });
+    }
+
+    @Transactional
+    @Override
+    public OptionalLong applyWithdrawal(UUID walletId, long amountMinor) {
+        return walletMetrics.repository("applyWithdrawal", () -> {
+            int updated = walletMetrics.lockingQuery("applyWithdrawal", () -> jpaWalletRepository.findBalanceById(walletId),
+                    () -> jpaWalletRepository.decrementBalance(walletId, amountMinor));
+            return updated == 1 ? OptionalLong.of(afterUpdate(walletId)) : OptionalLong.empty();
+        });
+    }
+
+    private long afterUpdate(UUID walletId) {
+        BalanceUpdateRow row = jpaWalletRepository.findBalanceUpdate(walletId);
+        if (balanceCheckpointManager.isDue(row.transactionsSinceCheckpoint())) {
+            // A linha do ledger desta operação é gravada logo depois, na mesma transação
+            int pending = balanceCheckpointManager.checkpointDue(walletId) + 1;
+            if (pending != row.transactionsSinceCheckpoint()) {
+                jpaWalletRepository.updateTransactionsSinceCheckpoint(walletId, pending);
+            }
+        }
+        return row.balanceMinor();
     }
 
     @Transactional
     @Override
     public void recordTransaction(Transaction transaction) {
-        TransactionEntity entity = TransactionEntity.fromDomain(transaction);
-        jpaTransactionRepository.save(entity);
+        walletMetrics.repository("recordTransaction", () -> {
+            TransactionEntity entity = TransactionEntity.fromDomain(transaction);
+            // persist em vez de save: o id já vem do domínio, e o merge faria um SELECT antes do INSERT
+            entityManager.persist(entity);
+            try {
+                // Força o INSERT agora para que uma chave de idempotência repetida falhe antes de o saldo ser alterado
+                entityManager.flush();
+            } catch (PersistenceException e) {
+                if (violates(e, TransactionEntity.IDEMPOTENCY_CONSTRAINT)) {
+                    throw new DuplicateOperationException(transaction.idempotencyKey());
+                }
+                throw e;
+            }
+        });
+    }
+
+    @Transactional
+    @Override
+    public void recordTransactions(List<Transaction> transactions) {
+        walletMetrics.repository("recordTransactions", () -> {
+            for (Transaction transaction : transactions) {
+                entityManager.persist(TransactionEntity.fromDomain(transaction));
+            }
+            try {
+                // Um único flush: com hibernate.jdbc.batch_size e order_inserts os INSERTs vão em lotes
+                entityManager.flush();
+            } catch (PersistenceException e) {
+                if (violates(e, TransactionEntity.IDEMPOTENCY_CONSTRAINT)) {
+                    throw new DuplicateOperationException("Lote contém operação já processada");
+                }
+                throw e;
+            }
+        });
     }
 
+    @Transactional(readOnly = true)
     @Override
     public BigDecimal getHistoricalBalance(UUID walletId, LocalDateTime dateTime) {
-        List<TransactionEntity> transactions = jpaTransactionRepository.findByWalletIdAndTimestampBefore(walletId, dateTime);
-        BigDecimal balance = BigDecimal.ZERO;
-
-        for (TransactionEntity tx : transactions) {
-            switch (tx.getType()) {
-                case DEPOSIT:
-                case TRANSFER_RECEIVED:
-                    balance = balance.add(tx.getAmount());
-                    break;
-                case WITHDRAWAL:
-                case TRANSFER_SENT:
-                    balance = balance.subtract(tx.getAmount());
-                    break;
+        return walletMetrics.repository("getHistoricalBalance", () -> historicalBalance(walletId, dateTime));
+    }
+
+    private BigDecimal historicalBalance(UUID walletId, LocalDateTime dateTime) {
+        // Antes do corte todo o ledger está no arquivo frio, que já tem as somas por bloco
+        if (ledgerArchive.isCold(dateTime)) {
+            return MinorUnits.toDecimal(ledgerArchive.balanceAt(walletId, dateTime));
+        }
+        Optional<BalanceCheckpointEntity> checkpoint =
+                jpaBalanceCheckpointRepository.findFirstByWalletIdAndAsOfLessThanEqualOrderByAsOfDescIdDesc(walletId, dateTime);
+        if (checkpoint.isEmpty()) {
+            return MinorUnits.toDecimal(orZero(jpaTransactionRepository.sumSignedAmounts(walletId, dateTime)));
+        }
+        BalanceCheckpointEntity from = checkpoint.get();
+        Long tail = jpaTransactionRepository.sumSignedAmountsAfterCheckpoint(walletId, from.getAsOf(), dateTime);
+        return MinorUnits.toDecimal(MinorUnits.add(from.getBalanceMinor(), orZero(tail)));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BalancePoint> getBalanceTimeline(UUID walletId, LocalDateTime from, LocalDateTime to, TimelineInterval interval) {
+        return walletMetrics.repository("getBalanceTimeline", () -> balanceTimeline(walletId, from, to, interval));
+    }
+
+    // Saldo de abertura uma vez, depois só as transações do período: O(transações no período + intervalos)
+    private List<BalancePoint> balanceTimeline(UUID walletId, LocalDateTime from, LocalDateTime to, TimelineInterval interval) {
+        TimelineFold fold = new TimelineFold(balanceBefore(walletId, from), from, interval);
+        LocalDateTime last = interval.next(from);
+        while (last.isBefore(to)) {
+            last = interval.next(last);
+        }
+        // A parte do período anterior ao corte vem do arquivo frio, o resto do banco
+        LocalDateTime hotFrom = from;
+        LocalDateTime cutoff = ledgerArchive.cutoff();
+        if (cutoff != null && from.isBefore(cutoff)) {
+            LocalDateTime coldTo = last.isBefore(cutoff) ? last : cutoff;
+            ledgerArchive.scan(walletId, from, transaction -> {
+                if (!transaction.timestamp().isBefore(coldTo)) {
+                    return false;
+                }
+                long amount = MinorUnits.of(transaction.amount());
+                fold.add(transaction.timestamp(), transaction.type().isCredit() ? amount : -amount);
+                return true;
+            });
+            hotFrom = coldTo;
+        }
+        if (hotFrom.isBefore(last)) {
+            try (Stream<TimedAmountRow> ledger = jpaTransactionRepository.streamSignedAmountsBetween(walletId, hotFrom, last)) {
+                ledger.forEach(row -> fold.add(row.timestamp(), row.amountMinor()));
             }
         }
-        return balance;
+        return fold.finish(to);
     }
 
+    private static final class TimelineFold {
+        private final List<BalancePoint> points = new ArrayList<>();
+        private final TimelineInterval interval;
+        private long balance;
+        private LocalDateTime start;
+        private LocalDateTime end;
+
+        private TimelineFold(long openingBalance, LocalDateTime from, TimelineInterval interval) {
+            this.interval = interval;
+            this.balance = openingBalance;
+            this.start = from;
+            this.end = interval.next(from);
+        }
+
+        // As transações precisam chegar em ordem de timestamp
+        private void add(LocalDateTime timestamp, long amountMinor) {
+            while (!timestamp.isBefore(end)) {
+                close();
+            }
+            balance = MinorUnits.add(balance, amountMinor);
+        }
+
+        private List<BalancePoint> finish(LocalDateTime to) {
+            while (start.isBefore(to)) {
+                close();
+            }
+            return points;
+        }
+
+        private void close() {
+            points.add(new BalancePoint(start, end, MinorUnits.toDecimal(balance)));
+            start = end;
+            end = interval.next(start);
+        }
+    }
+
+    // Como historicalBalance, mas sem as transações do próprio instante before
+    private long balanceBefore(UUID walletId, LocalDateTime before) {
+        LocalDateTime cutoff = ledgerArchive.cutoff();
+        if (cutoff != null && !before.isAfter(cutoff)) {
+            return ledgerArchive.balanceBefore(walletId, before);
+        }
+        Optional<BalanceCheckpointEntity> checkpoint =
+                jpaBalanceCheckpointRepository.findFirstByWalletIdAndAsOfLessThanOrderByAsOfDescIdDesc(walletId, before);
+        if (checkpoint.isEmpty()) {
+            return orZero(jpaTransactionRepository.sumSignedAmountsBefore(walletId, before));
+        }
+        BalanceCheckpointEntity from = checkpoint.get();
+        Long tail = jpaTransactionRepository.sumSignedAmountsAfterCheckpointBefore(walletId, from.getAsOf(), before);
+        return MinorUnits.add(from.getBalanceMinor(), orZero(tail));
+    }
+
+    private static long orZero(Long sum) {
+        return sum == null ? 0L : sum;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<ProcessedOperation> findProcessed(UUID idempotencyKey, UUID walletId) {
+        return walletMetrics.repository("findProcessed",
+                () -> jpaTransactionRepository.findByIdempotencyKeyAndWalletId(idempotencyKey, walletId)
+                        .map(entity -> ProcessedOperation.of(entity.toDomain())));
+    }
+
+    @Transactional(readOnly = true)
     @Override
-    public boolean hasProcessed(UUID idempotencyKey) {
-        return jpaTransactionRepository.existsByIdempotencyKey(idempotencyKey);
+    public Map<UUID, Map<UUID, ProcessedOperation>> findProcessedOperations(Collection<UUID> idempotencyKeys) {
+        return walletMetrics.repository("findProcessedOperations", () -> jpaTransactionRepository.findProcessedKeys(idempotencyKeys).stream()
+                .collect(Collectors.groupingBy(JpaTransactionRepository.ProcessedKey::getIdempotencyKey,
+                        Collectors.toMap(JpaTransactionRepository.ProcessedKey::getWalletId, row -> new ProcessedOperation(
+                                row.getId(), row.getWalletId(), row.getType(), MinorUnits.toDecimal(row.getAmountMinor()),
+                                row.getTimestamp())))));
+    }
+
+    private static boolean violates(Throwable e, String constraintName) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String violated = violation.getConstraintName();
+                return violated != null && violated.toLowerCase(Locale.ROOT).contains(constraintName);
+            }
+        }
+        return false;
     }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.walletapp.infrastructure.rest;
+
+import com.walletapp.domain.model.BalanceChangeEvent;
+import com.walletapp.infrastructure.outbox.InProcessBalanceChangeSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Assinaturas SSE das alterações de saldo publicadas pelo relay do outbox. Cada assinante tem um buffer de
+ * {@code wallet.outbox.sse.buffer-size} eventos e uma virtual thread que escreve na conexão, para que um cliente
+ * lento não segure o relay; quem enche o buffer é desconectado e deve reler o saldo ao reconectar.
+ * <p>
+ * É um fluxo ao vivo: eventos publicados enquanto o cliente estava desconectado não são reenviados.
+ * <p>
+ * Só funciona com uma réplica: os eventos chegam pelo {@link InProcessBalanceChangeSink} da réplica que está rodando
+ * o relay, e assinantes conectados às outras não receberiam nada. Por isso o fluxo fica desligado com
+ * {@code wallet.invalidation.bus=jdbc}, a configuração de várias réplicas, e com {@code wallet.outbox.sse.enabled=false}.
+ */
+@Component
+public class BalanceChangeStream {
+    private static final Logger logger = LoggerFactory.getLogger(BalanceChangeStream.class);
+    private final InProcessBalanceChangeSink sink;
+    private final Duration timeout;
+    private final int bufferSize;
+    private final boolean enabled;
+
+    public BalanceChangeStream(InProcessBalanceChangeSink sink,
+                               @Value("${wallet.outbox.sse.timeout:PT30M}") Duration timeout,
+                               @Value("${wallet.outbox.sse.buffer-size:1000}") int bufferSize,
+                               @Value("${wallet.outbox.sse.enabled:true}") boolean enabled,
+                               @Value("${wallet.invalidation.bus:none}") String invalidationBus) {
+        this.sink = sink;
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.enabled = enabled && !"jdbc".equals(invalidationBus);
+        if (enabled && !this.enabled) {
+            logger.warn("Fluxo SSE de saldo desligado: só entrega eventos numa única réplica (wallet.invalidation.bus={})",
+                    invalidationBus);
+        }
+    }
+
+    /**
+     * @param walletId só os eventos desta carteira; nulo para todas
+     */
+    public SseEmitter open(UUID walletId) {
+        if (!enabled) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Fluxo de alterações de saldo desligado nesta implantação");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        BlockingQueue<BalanceChangeEvent> buffer = new ArrayBlockingQueue<>(bufferSize);
+        Runnable unsubscribe = sink.subscribe(events -> {
+            for (BalanceChangeEvent event : events) {
+                if ((walletId == null || walletId.equals(event.walletId())) && !buffer.offer(event)) {
+                    logger.warn("Assinante de alterações de saldo não acompanha o fluxo; desconectando");
+                    emitter.completeWithError(new IllegalStateException("Buffer do assinante cheio"));
+                    return;
+                }
+            }
+        });
+        Thread sender = Thread.ofVirtual().name("balance-change-sse").start(() -> send(emitter, buffer));
+        Runnable close = () -> {
+            unsubscribe.run();
+            sender.interrupt();
+        };
+        emitter.onCompletion(close);
+        emitter.onTimeout(close);
+        emitter.onError(e -> close.run());
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, BlockingQueue<BalanceChangeEvent> buffer) {
+        try {
+            while (true) {
+                BalanceChangeEvent event = buffer.take();
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.sequence()))
+                        .name("balance-change")
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+        } catch (InterruptedException e) {
+            // Assinatura encerrada
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+}
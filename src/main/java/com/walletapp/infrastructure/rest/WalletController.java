@@ -1,44 +1,132 @@
 package com.walletapp.infrastructure.rest;
 
+import com.walletapp.application.service.BalanceLookupService;
+import com.walletapp.application.service.BalanceTimelineService;
+import com.walletapp.application.service.BatchItemResult;
+import com.walletapp.application.service.BatchOperation;
+import com.walletapp.application.service.BatchOperationService;
+import com.walletapp.application.service.TransactionHistoryService;
+import com.walletapp.application.service.WalletBalanceResult;
 import com.walletapp.application.service.WalletService;
+import com.walletapp.domain.model.BalancePoint;
+import com.walletapp.domain.model.TimelineInterval;
+import com.walletapp.domain.model.TransactionPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/wallets")
 public class WalletController {
     private static final Logger logger = LoggerFactory.getLogger(WalletController.class);
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
     private final WalletService walletService;
+    private final BatchOperationService batchOperationService;
+    private final TransactionHistoryService transactionHistoryService;
+    private final BalanceLookupService balanceLookupService;
+    private final BalanceTimelineService balanceTimelineService;
+    private final BalanceChangeStream balanceChangeStream;
+    private final ObjectMapper objectMapper;
 
-    public WalletController(WalletService walletService) {
+    public WalletController(WalletService walletService,
+                            BatchOperationService batchOperationService,
+                            TransactionHistoryService transactionHistoryService,
+                            BalanceLookupService balanceLookupService,
+                            BalanceTimelineService balanceTimelineService,
+                            BalanceChangeStream balanceChangeStream,
+                            ObjectMapper objectMapper) {
         this.walletService = walletService;
+        this.batchOperationService = batchOperationService;
+        this.transactionHistoryService = transactionHistoryService;
+        this.balanceLookupService = balanceLookupService;
+        this.balanceTimelineService = balanceTimelineService;
+        this.balanceChangeStream = balanceChangeStream;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
     public UUID createWallet(@RequestParam UUID userId) {
-        logger.info("Requisição para criar carteira para userId: {}", userId);
         return walletService.createWallet(userId);
     }
 
     @GetMapping("/{walletId}/balance")
     public BigDecimal retrieveBalance(@PathVariable UUID walletId) {
-        logger.debug("Requisição para consultar saldo da carteira: {}", walletId);
         return walletService.retrieveBalance(walletId);
     }
 
+    @PostMapping("/balances")
+    public List<WalletBalanceResult> retrieveBalances(@RequestBody List<UUID> walletIds) {
+        return balanceLookupService.retrieveBalances(walletIds);
+    }
+
+    @GetMapping("/balances")
+    public List<WalletBalanceResult> retrieveBalancesByUser(@RequestParam UUID userId,
+                                                            @RequestParam(required = false) UUID after) {
+        return balanceLookupService.retrieveBalancesByUser(userId, after);
+    }
+
+    @GetMapping(value = "/balance-changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBalanceChanges(@RequestParam(required = false) UUID walletId) {
+        logger.debug("Nova assinatura de alterações de saldo (carteira: {})", walletId);
+        return balanceChangeStream.open(walletId);
+    }
+
     @GetMapping("/{walletId}/historical-balance")
     public BigDecimal retrieveHistoricalBalance(
             @PathVariable UUID walletId,
             @RequestParam("at") String dateTime
     ) {
-        LocalDateTime at = LocalDateTime.parse(dateTime);
-        return walletService.retrieveHistoricalBalance(walletId, at);
+        return walletService.retrieveHistoricalBalance(walletId, dateTime);
+    }
+
+    @GetMapping("/{walletId}/balance-timeline")
+    public List<BalancePoint> retrieveBalanceTimeline(
+            @PathVariable UUID walletId,
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(defaultValue = "DAY") TimelineInterval interval
+    ) {
+        return balanceTimelineService.retrieveBalanceTimeline(walletId, from, to, interval);
+    }
+
+    @GetMapping("/{walletId}/transactions")
+    public TransactionPage retrieveTransactions(
+            @PathVariable UUID walletId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return transactionHistoryService.retrieveTransactions(walletId, cursor, limit);
+    }
+
+    @GetMapping(value = "/{walletId}/transactions/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@PathVariable UUID walletId) {
+        // Verificado antes de começar a escrever, enquanto ainda dá para responder 404
+        transactionHistoryService.ensureWalletExists(walletId);
+        StreamingResponseBody body = output -> {
+            BufferedOutputStream buffered = new BufferedOutputStream(output);
+            transactionHistoryService.exportTransactions(walletId, transaction -> {
+                try {
+                    buffered.write(objectMapper.writeValueAsBytes(transaction));
+                    buffered.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            buffered.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @PostMapping("/{walletId}/deposit")
@@ -47,8 +135,7 @@ public class WalletController {
             @RequestParam BigDecimal amount,
             @RequestHeader("Idempotency-Key") UUID idempotencyKey
     ) {
-        walletService.depositFunds(walletId, amount, idempotencyKey);
-        return ResponseEntity.ok().build();
+        return processed(walletService.depositFunds(walletId, amount, idempotencyKey));
     }
 
     @PostMapping("/{walletId}/withdraw")
@@ -57,8 +144,7 @@ public class WalletController {
             @RequestParam BigDecimal amount,
             @RequestHeader("Idempotency-Key") UUID idempotencyKey
     ) {
-        walletService.withdrawFunds(walletId, amount, idempotencyKey);
-        return ResponseEntity.ok().build();
+        return processed(walletService.withdrawFunds(walletId, amount, idempotencyKey));
     }
 
     @PostMapping("/transfer")
@@ -68,7 +154,16 @@ public class WalletController {
             @RequestParam BigDecimal amount,
             @RequestHeader("Idempotency-Key") UUID idempotencyKey
     ) {
-        walletService.transferFunds(fromWalletId, toWalletId, amount, idempotencyKey);
-        return ResponseEntity.ok().build();
+        return processed(walletService.transferFunds(fromWalletId, toWalletId, amount, idempotencyKey));
+    }
+
+    // Repetição de uma chave já processada recebe a mesma resposta da original, marcada pelo cabeçalho
+    private static ResponseEntity<Void> processed(boolean applied) {
+        return applied ? ResponseEntity.ok().build() : ResponseEntity.ok().header(REPLAYED_HEADER, "true").build();
+    }
+
+    @PostMapping("/batch")
+    public List<BatchItemResult> executeBatch(@RequestBody List<BatchOperation> operations) {
+        return batchOperationService.execute(operations);
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.walletapp;
+
+import com.walletapp.infrastructure.persistence.LedgerArchiver;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sem application.properties: o contexto sobe só com os valores padrão dos @Value, que também precisam ser válidos
+@SpringBootTest(properties = "spring.config.name=no-application-properties")
+class DefaultPropertiesContextTest {
+
+    @Autowired
+    private LedgerArchiver ledgerArchiver;
+
+    @Test
+    void contextLoads_WithCodeDefaults() {
+        assertThat(ledgerArchiver).isNotNull();
+    }
+}
@@ -0,0 +1,132 @@
+package com.walletapp.application.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceCacheTest {
+
+    private final BalanceCache balanceCache = new BalanceCache(Duration.ofMinutes(1), 100);
+    private final UUID walletId = UUID.randomUUID();
+
+    @Test
+    void get_ShouldNotCacheMissingWallet() {
+        assertTrue(balanceCache.get(walletId, id -> Optional.empty()).isEmpty());
+
+        assertEquals(Optional.of(BigDecimal.TEN), balanceCache.get(walletId, id -> Optional.of(BigDecimal.TEN)));
+    }
+
+    @Test
+    void invalidate_ShouldDiscardValueLoadedBeforeConcurrentCommit() throws Exception {
+        AtomicReference<BigDecimal> committed = new AtomicReference<>(BigDecimal.ONE);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Leitor lê o saldo antigo e fica parado antes de guardá-lo
+            Future<Optional<BigDecimal>> reader = executor.submit(() -> balanceCache.get(walletId, id -> {
+                BigDecimal balance = committed.get();
+                loading.countDown();
+                await(release);
+                return Optional.of(balance);
+            }));
+            loading.await();
+
+            // Escritor confirma o novo saldo e invalida enquanto a carga ainda está em andamento, sem esperar por ela
+            committed.set(BigDecimal.TEN);
+            executor.submit(() -> balanceCache.invalidate(walletId)).get(5, TimeUnit.SECONDS);
+            release.countDown();
+
+            assertEquals(Optional.of(BigDecimal.ONE), reader.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(Optional.of(BigDecimal.TEN), balanceCache.get(walletId, id -> Optional.of(committed.get())));
+    }
+
+    @Test
+    void publishOnCommit_ShouldPublishOnlyAfterCommit_AndSwallowBusFailures() {
+        List<Collection<UUID>> published = new ArrayList<>();
+        BalanceCache replicated = new BalanceCache(Duration.ofMinutes(1), 100, Optional.of(new CacheInvalidationBus() {
+            @Override
+            public void publish(Collection<UUID> walletIds) {
+                published.add(walletIds);
+                throw new IllegalStateException("barramento indisponível");
+            }
+
+            @Override
+            public void subscribe(Consumer<Collection<UUID>> listener) {
+            }
+        }));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            replicated.publishOnCommit(List.of(walletId));
+            assertTrue(published.isEmpty());
+
+            // A falha do barramento não chega a quem confirmou a escrita
+            assertDoesNotThrow(() -> TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(List.of(walletId)), published);
+    }
+
+    @Test
+    void publishOnCommit_ShouldPublishInsideTransaction_WhenBusJoinsIt() {
+        List<Collection<UUID>> published = new ArrayList<>();
+        BalanceCache replicated = new BalanceCache(Duration.ofMinutes(1), 100, Optional.of(new CacheInvalidationBus() {
+            @Override
+            public void publish(Collection<UUID> walletIds) {
+                published.add(walletIds);
+            }
+
+            @Override
+            public void subscribe(Consumer<Collection<UUID>> listener) {
+            }
+
+            @Override
+            public boolean joinsTransaction() {
+                return true;
+            }
+        }));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            replicated.publishOnCommit(List.of(walletId));
+
+            // Gravado junto com a mutação, sem esperar o commit
+            assertEquals(List.of(List.of(walletId)), published);
+            assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.walletapp.application.service;
+
+import com.walletapp.application.service.BatchItemResult.Status;
+import com.walletapp.domain.exception.DuplicateOperationException;
+import com.walletapp.domain.model.ProcessedOperation;
+import com.walletapp.domain.model.TransactionType;
+import com.walletapp.domain.model.Wallet;
+import com.walletapp.domain.repository.OutboxRepository;
+import com.walletapp.domain.repository.WalletRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchOperationServiceTest {
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private IdempotencyCache idempotencyCache;
+
+    @Mock
+    private BalanceCache balanceCache;
+
+    private BatchOperationService batchOperationService;
+
+    @BeforeEach
+    void setUp() {
+        batchOperationService = new BatchOperationService(walletRepository, outboxRepository, transactionTemplate,
+                new ConcurrencyRetry(1, 0, 0), idempotencyCache, balanceCache, 10, 3);
+    }
+
+    @Test
+    void execute_ShouldRejectWithBadRequest_WhenBatchExceedsLimit() {
+        UUID walletId = UUID.randomUUID();
+        List<BatchOperation> operations = List.of(deposit(walletId, UUID.randomUUID()), deposit(walletId, UUID.randomUUID()),
+                deposit(walletId, UUID.randomUUID()), deposit(walletId, UUID.randomUUID()));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> batchOperationService.execute(operations));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void execute_ShouldRerunChunk_UntilConcurrentKeysAreSeenAsDuplicates() {
+        UUID walletId = UUID.randomUUID();
+        UUID firstKey = UUID.randomUUID();
+        UUID secondKey = UUID.randomUUID();
+        UUID thirdKey = UUID.randomUUID();
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(walletRepository.findAllByIdForUpdate(anyCollection())).thenAnswer(invocation ->
+                Map.of(walletId, new Wallet(walletId, UUID.randomUUID(), BigDecimal.ZERO, LocalDateTime.now())));
+        // Cada tentativa perde uma chave para uma chamada concorrente, que a próxima já enxerga
+        when(walletRepository.findProcessedOperations(anyCollection()))
+                .thenReturn(Map.of())
+                .thenReturn(Map.of(firstKey, Map.of(walletId, processedDeposit(walletId, BigDecimal.ONE))))
+                .thenReturn(Map.of(firstKey, Map.of(walletId, processedDeposit(walletId, BigDecimal.ONE)),
+                        secondKey, Map.of(walletId, processedDeposit(walletId, BigDecimal.ONE))));
+        doThrow(new DuplicateOperationException(firstKey))
+                .doThrow(new DuplicateOperationException(secondKey))
+                .doNothing()
+                .when(walletRepository).recordTransactions(anyList());
+
+        List<BatchItemResult> results = batchOperationService.execute(List.of(
+                deposit(walletId, firstKey), deposit(walletId, secondKey), deposit(walletId, thirdKey)));
+
+        assertEquals(List.of(Status.DUPLICATE, Status.DUPLICATE, Status.APPLIED),
+                results.stream().map(BatchItemResult::status).toList());
+        verify(walletRepository, times(3)).recordTransactions(anyList());
+        verify(idempotencyCache).markProcessed(eq(thirdKey), any());
+        verify(idempotencyCache, never()).markProcessed(eq(firstKey), any());
+    }
+
+    @Test
+    void execute_ShouldReportConflict_WhenKeyWasUsedForAnotherOperation() {
+        UUID walletId = UUID.randomUUID();
+        UUID cachedKey = UUID.randomUUID();
+        UUID storedKey = UUID.randomUUID();
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(idempotencyCache.find(cachedKey, walletId)).thenReturn(Optional.of(processedDeposit(walletId, BigDecimal.TEN)));
+        when(walletRepository.findAllByIdForUpdate(anyCollection())).thenAnswer(invocation ->
+                Map.of(walletId, new Wallet(walletId, UUID.randomUUID(), BigDecimal.ZERO, LocalDateTime.now())));
+        when(walletRepository.findProcessedOperations(anyCollection()))
+                .thenReturn(Map.of(storedKey, Map.of(walletId, processedDeposit(walletId, BigDecimal.TEN))));
+
+        // Mesmas chaves, outro valor: uma conferida pelo cache, a outra pelo ledger
+        List<BatchItemResult> results = batchOperationService.execute(List.of(
+                deposit(walletId, cachedKey), deposit(walletId, storedKey)));
+
+        assertEquals(List.of(Status.CONFLICT, Status.CONFLICT), results.stream().map(BatchItemResult::status).toList());
+        verify(walletRepository, never()).recordTransactions(anyList());
+    }
+
+    private static ProcessedOperation processedDeposit(UUID walletId, BigDecimal amount) {
+        return new ProcessedOperation(UUID.randomUUID(), walletId, TransactionType.DEPOSIT, amount, LocalDateTime.now());
+    }
+
+    private static BatchOperation deposit(UUID walletId, UUID idempotencyKey) {
+        return new BatchOperation(BatchOperation.Type.DEPOSIT, walletId, null, BigDecimal.ONE, idempotencyKey);
+    }
+}
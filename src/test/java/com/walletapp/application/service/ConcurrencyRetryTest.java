@@ -0,0 +1,51 @@
+package com.walletapp.application.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyRetryTest {
+
+    private final ConcurrencyRetry concurrencyRetry = new ConcurrencyRetry(3, 1, 5);
+
+    @Test
+    void execute_ShouldRetry_WhenLockFails() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = concurrencyRetry.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new CannotAcquireLockException("deadlock");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void execute_ShouldGiveUp_AfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(CannotAcquireLockException.class, () -> concurrencyRetry.run(() -> {
+            attempts.incrementAndGet();
+            throw new CannotAcquireLockException("lock timeout");
+        }));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void execute_ShouldNotRetry_OtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(DataIntegrityViolationException.class, () -> concurrencyRetry.run(() -> {
+            attempts.incrementAndGet();
+            throw new DataIntegrityViolationException("constraint");
+        }));
+        assertEquals(1, attempts.get());
+    }
+}
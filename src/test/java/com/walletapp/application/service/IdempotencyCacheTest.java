@@ -0,0 +1,77 @@
+package com.walletapp.application.service;
+
+import com.walletapp.domain.model.ProcessedOperation;
+import com.walletapp.domain.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final UUID walletId = UUID.randomUUID();
+
+    @Test
+    void find_ShouldCountHitsAndMisses() {
+        IdempotencyCache cache = new IdempotencyCache(Duration.ofMinutes(1), 10, nanos::get, Runnable::run);
+        UUID idempotencyKey = UUID.randomUUID();
+
+        assertTrue(cache.find(idempotencyKey, walletId).isEmpty());
+        cache.markProcessed(idempotencyKey, deposit(BigDecimal.TEN));
+        assertTrue(cache.find(idempotencyKey, walletId).isPresent());
+        assertTrue(cache.find(idempotencyKey, UUID.randomUUID()).isEmpty());
+
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    void find_ShouldReturnOriginalOutcome() {
+        IdempotencyCache cache = new IdempotencyCache(Duration.ofMinutes(1), 10, nanos::get, Runnable::run);
+        UUID idempotencyKey = UUID.randomUUID();
+        ProcessedOperation original = deposit(new BigDecimal("12.50"));
+        cache.markProcessed(idempotencyKey, original);
+
+        ProcessedOperation cached = cache.find(idempotencyKey, walletId).orElseThrow();
+
+        assertEquals(original, cached);
+        assertTrue(cached.matches(TransactionType.DEPOSIT, new BigDecimal("12.5")));
+        assertFalse(cached.matches(TransactionType.DEPOSIT, BigDecimal.TEN));
+        assertFalse(cached.matches(TransactionType.WITHDRAWAL, new BigDecimal("12.50")));
+    }
+
+    @Test
+    void find_ShouldForgetKey_AfterTtl() {
+        IdempotencyCache cache = new IdempotencyCache(Duration.ofMinutes(1), 10, nanos::get, Runnable::run);
+        UUID idempotencyKey = UUID.randomUUID();
+        cache.markProcessed(idempotencyKey, deposit(BigDecimal.TEN));
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        assertTrue(cache.find(idempotencyKey, walletId).isEmpty());
+        assertEquals(0, cache.estimatedSize());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void markProcessed_ShouldEvict_WhenMaxSizeExceeded() {
+        IdempotencyCache cache = new IdempotencyCache(Duration.ofMinutes(1), 10, nanos::get, Runnable::run);
+
+        for (int i = 0; i < 50; i++) {
+            cache.markProcessed(UUID.randomUUID(), deposit(BigDecimal.ONE));
+        }
+
+        assertEquals(10, cache.estimatedSize());
+        assertEquals(40, cache.evictionCount());
+    }
+
+    private ProcessedOperation deposit(BigDecimal amount) {
+        return new ProcessedOperation(UUID.randomUUID(), walletId, TransactionType.DEPOSIT, amount, LocalDateTime.now());
+    }
+}
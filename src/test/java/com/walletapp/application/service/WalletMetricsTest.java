@@ -0,0 +1,56 @@
+package com.walletapp.application.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalletMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WalletMetrics walletMetrics = new WalletMetrics(meterRegistry);
+
+    @Test
+    void lockingQuery_ShouldRecordTimeSpentBeyondUnlockedProbe() {
+        WalletMetrics sampleAll = new WalletMetrics(meterRegistry, 1);
+
+        // A sonda e a consulta leem o mesmo; só a consulta com lock espera
+        sampleAll.lockingQuery("applyDeposit", () -> sleep(5), () -> sleep(60));
+        sampleAll.lockingQuery("applyDeposit", () -> sleep(5), () -> sleep(5));
+
+        Timer wait = meterRegistry.get("wallet.lock.wait").tags("method", "applyDeposit").timer();
+        assertEquals(2, wait.count());
+        assertTrue(wait.max(TimeUnit.MILLISECONDS) >= 40);
+    }
+
+    @Test
+    void lockingQuery_ShouldSkipProbe_WhenSamplingIsOff() {
+        WalletMetrics sampleNone = new WalletMetrics(meterRegistry, 0);
+
+        assertEquals(1, sampleNone.lockingQuery("applyDeposit", () -> fail("sonda não deveria rodar"), () -> 1));
+        assertNull(meterRegistry.find("wallet.lock.wait").timer());
+    }
+
+    @Test
+    void record_ShouldSeparateTimersByOutcome() {
+        walletMetrics.record("deposit", () -> 1);
+        assertThrows(IllegalStateException.class, () -> walletMetrics.record("deposit", (Runnable) () -> {
+            throw new IllegalStateException("falha");
+        }));
+
+        assertEquals(1, meterRegistry.get("wallet.operation").tags("operation", "deposit", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("wallet.operation").tags("operation", "deposit", "outcome", "error").timer().count());
+    }
+
+    private static int sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+}
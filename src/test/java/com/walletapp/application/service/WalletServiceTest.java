@@ -1,22 +1,36 @@
 package com.walletapp.application.service;
 
+import com.walletapp.domain.exception.DuplicateOperationException;
+import com.walletapp.domain.exception.IdempotencyKeyConflictException;
+import com.walletapp.domain.exception.InsufficientFundsException;
+import com.walletapp.domain.model.BalanceChangeEvent;
+import com.walletapp.domain.model.ProcessedOperation;
 import com.walletapp.domain.model.Transaction;
 import com.walletapp.domain.model.TransactionType;
 import com.walletapp.domain.model.Wallet;
+import com.walletapp.domain.repository.OutboxRepository;
 import com.walletapp.domain.repository.WalletRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,8 +41,19 @@ class WalletServiceTest {
     @Mock
     private WalletRepository walletRepository;
 
-    @InjectMocks
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private WalletWriteQueue walletWriteQueue;
+
     private WalletService walletService;
+    private IdempotencyCache idempotencyCache;
+    private BalanceCache balanceCache;
+    private SimpleMeterRegistry meterRegistry;
 
     private UUID walletId;
     private UUID userId;
@@ -36,11 +61,21 @@ class WalletServiceTest {
 
     @BeforeEach
     void setUp() {
+        idempotencyCache = new IdempotencyCache(Duration.ofMinutes(10), 1000);
+        balanceCache = new BalanceCache(Duration.ofMinutes(1), 1000);
+        meterRegistry = new SimpleMeterRegistry();
+        walletService = serviceWith(ConcurrencyStrategy.PESSIMISTIC);
         walletId = UUID.randomUUID();
         userId = UUID.randomUUID();
         idempotencyKey = UUID.randomUUID();
     }
 
+    private WalletService serviceWith(ConcurrencyStrategy concurrencyStrategy) {
+        return new WalletService(walletRepository, outboxRepository, new TransactionTemplate(transactionManager),
+                new ConcurrencyRetry(3, 0, 0), concurrencyStrategy, idempotencyCache, walletWriteQueue, Duration.ofMillis(100), balanceCache,
+                new WalletMetrics(meterRegistry));
+    }
+
     @Test
     void createWallet_ShouldReturnWalletId() {
         Wallet wallet = new Wallet(userId);
@@ -55,18 +90,18 @@ class WalletServiceTest {
 
     @Test
     void retrieveBalance_ShouldReturnBalance_WhenWalletExists() {
-        Wallet wallet = new Wallet(walletId, userId, BigDecimal.valueOf(100), LocalDateTime.now());
-        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findBalanceById(walletId)).thenReturn(Optional.of(BigDecimal.valueOf(100)));
 
         BigDecimal balance = walletService.retrieveBalance(walletId);
 
         assertEquals(BigDecimal.valueOf(100), balance);
-        verify(walletRepository, times(1)).findById(walletId);
+        verify(walletRepository, times(1)).findBalanceById(walletId);
+        verify(walletRepository, never()).findByIdForUpdate(walletId);
     }
 
     @Test
     void retrieveBalance_ShouldThrowException_WhenWalletNotFound() {
-        when(walletRepository.findById(walletId)).thenReturn(Optional.empty());
+        when(walletRepository.findBalanceById(walletId)).thenReturn(Optional.empty());
 
         ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
             walletService.retrieveBalance(walletId);
@@ -74,48 +109,298 @@ class WalletServiceTest {
 
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
         assertEquals("Carteira não encontrada", exception.getReason());
-        verify(walletRepository, times(1)).findById(walletId);
+        verify(walletRepository, times(1)).findBalanceById(walletId);
+    }
+
+    @Test
+    void retrieveBalance_ShouldServeRepeatedReadsFromCache() {
+        when(walletRepository.findBalanceById(walletId)).thenReturn(Optional.of(BigDecimal.valueOf(100)));
+
+        walletService.retrieveBalance(walletId);
+        BigDecimal balance = walletService.retrieveBalance(walletId);
+
+        assertEquals(BigDecimal.valueOf(100), balance);
+        verify(walletRepository, times(1)).findBalanceById(walletId);
+        assertEquals(0.5, balanceCache.hitRate());
+    }
+
+    @Test
+    void retrieveBalance_ShouldReadOwnWrite_AfterDeposit() {
+        Wallet wallet = new Wallet(walletId, userId, BigDecimal.valueOf(100), LocalDateTime.now());
+        when(walletRepository.findBalanceById(walletId))
+                .thenReturn(Optional.of(BigDecimal.valueOf(100)), Optional.of(BigDecimal.valueOf(150)));
+        when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
+
+        walletService.retrieveBalance(walletId);
+        walletService.depositFunds(walletId, BigDecimal.valueOf(50), idempotencyKey);
+
+        assertEquals(BigDecimal.valueOf(150), walletService.retrieveBalance(walletId));
+    }
+
+    @Test
+    void depositFunds_ShouldInvalidateCachedBalance_WhenRolledBack() {
+        Wallet wallet = new Wallet(walletId, userId, BigDecimal.valueOf(100), LocalDateTime.now());
+        when(walletRepository.findBalanceById(walletId)).thenReturn(Optional.of(BigDecimal.valueOf(100)));
+        when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
+        when(walletRepository.save(any(Wallet.class))).thenThrow(new IllegalStateException("falha ao gravar"));
+
+        walletService.retrieveBalance(walletId);
+        assertThrows(IllegalStateException.class,
+                () -> walletService.depositFunds(walletId, BigDecimal.valueOf(50), idempotencyKey));
+
+        assertEquals(BigDecimal.valueOf(100), walletService.retrieveBalance(walletId));
+        verify(transactionManager).rollback(any());
+        verify(walletRepository, times(2)).findBalanceById(walletId);
     }
 
     @Test
     void depositFunds_ShouldIncreaseBalance_WhenNotProcessed() {
         Wallet wallet = new Wallet(walletId, userId, BigDecimal.ZERO, LocalDateTime.now());
-        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
-        when(walletRepository.hasProcessed(idempotencyKey)).thenReturn(false);
+        when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
         when(walletRepository.save(any(Wallet.class))).thenReturn(wallet);
 
         walletService.depositFunds(walletId, BigDecimal.valueOf(50), idempotencyKey);
 
-        assertEquals(BigDecimal.valueOf(50), wallet.getBalance());
+        assertEquals(5_000L, wallet.getBalanceMinor());
         verify(walletRepository, times(1)).recordTransaction(any(Transaction.class));
         verify(walletRepository, times(1)).save(wallet);
+        verify(outboxRepository).append(argThat(events -> events.size() == 1
+                && hasChange(events.get(0), walletId, BigDecimal.valueOf(50), BigDecimal.valueOf(50))));
+    }
+
+    @Test
+    void depositFunds_ShouldReadWithoutLock_WhenOptimistic() {
+        Wallet wallet = new Wallet(walletId, userId, BigDecimal.ZERO, LocalDateTime.now(), 3L);
+        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(walletRepository.save(any(Wallet.class))).thenReturn(wallet);
+
+        serviceWith(ConcurrencyStrategy.OPTIMISTIC).depositFunds(walletId, BigDecimal.valueOf(50), idempotencyKey);
+
+        assertEquals(5_000L, wallet.getBalanceMinor());
+        verify(walletRepository, never()).findByIdForUpdate(walletId);
+        verify(walletRepository, times(1)).save(wallet);
+    }
+
+    @Test
+    void withdrawFunds_ShouldRetry_WhenVersionConflicts() {
+        when(walletRepository.findById(walletId))
+                .thenAnswer(invocation -> Optional.of(new Wallet(walletId, userId, BigDecimal.valueOf(100), LocalDateTime.now(), 1L)));
+        when(walletRepository.save(any(Wallet.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Wallet.class, walletId))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        serviceWith(ConcurrencyStrategy.OPTIMISTIC).withdrawFunds(walletId, BigDecimal.valueOf(30), idempotencyKey);
+
+        verify(walletRepository, times(2)).save(any(Wallet.class));
+        // O ledger é gravado antes do saldo em cada tentativa; a primeira é desfeita junto com o conflito
+        verify(walletRepository, times(2)).recordTransaction(any(Transaction.class));
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void depositFunds_ShouldUpdateBalanceInPlace_WhenAtomic() {
+        when(walletRepository.applyDeposit(walletId, 5_000L)).thenReturn(OptionalLong.of(15_000L));
+
+        serviceWith(ConcurrencyStrategy.ATOMIC).depositFunds(walletId, BigDecimal.valueOf(50), idempotencyKey);
+
+        verify(walletRepository, times(1)).recordTransaction(any(Transaction.class));
+        verify(walletRepository, never()).findByIdForUpdate(walletId);
+        verify(walletRepository, never()).save(any(Wallet.class));
+        // Saldo devolvido pelo UPDATE, ainda com a linha travada
+        verify(outboxRepository).append(argThat(events -> events.size() == 1
+                && hasChange(events.get(0), walletId, BigDecimal.valueOf(50), BigDecimal.valueOf(150))));
+    }
+
+    @Test
+    void depositFunds_ShouldRejectNonPositiveAmount_WhenAtomic() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            serviceWith(ConcurrencyStrategy.ATOMIC).depositFunds(walletId, BigDecimal.ZERO, idempotencyKey);
+        });
+
+        assertEquals("O valor deve ser positivo", exception.getMessage());
+        verify(walletRepository, never()).applyDeposit(any(), anyLong());
+        verify(walletRepository, never()).recordTransaction(any(Transaction.class));
+    }
+
+    @Test
+    void depositFunds_ShouldThrowException_WhenWalletNotFoundAndAtomic() {
+        when(walletRepository.applyDeposit(walletId, 5_000L)).thenReturn(OptionalLong.empty());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            serviceWith(ConcurrencyStrategy.ATOMIC).depositFunds(walletId, BigDecimal.valueOf(50), idempotencyKey);
+        });
+
+        assertEquals("Carteira não encontrada", exception.getMessage());
+        verify(walletRepository, never()).recordTransaction(any(Transaction.class));
+    }
+
+    @Test
+    void withdrawFunds_ShouldRejectInsufficientFunds_WhenAtomic() {
+        when(walletRepository.applyWithdrawal(walletId, 15_000L)).thenReturn(OptionalLong.empty());
+        when(walletRepository.findBalanceById(walletId)).thenReturn(Optional.of(BigDecimal.valueOf(100)));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            serviceWith(ConcurrencyStrategy.ATOMIC).withdrawFunds(walletId, BigDecimal.valueOf(150), idempotencyKey);
+        });
+
+        assertEquals("Valor de saque inválido", exception.getMessage());
+        verify(walletRepository, never()).recordTransaction(any(Transaction.class));
+    }
+
+    @Test
+    void withdrawFunds_ShouldRejectInsufficientFunds_LikeLockedPath() {
+        Wallet wallet = new Wallet(walletId, userId, BigDecimal.valueOf(100), LocalDateTime.now(), 0L);
+        when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            walletService.withdrawFunds(walletId, BigDecimal.valueOf(150), idempotencyKey);
+        });
+
+        assertEquals("Valor de saque inválido", exception.getMessage());
+        assertEquals(10_000L, wallet.getBalanceMinor());
+        // A linha do ledger é inserida antes da checagem de saldo e sai no rollback
+        verify(walletRepository, times(1)).recordTransaction(any(Transaction.class));
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(walletRepository, never()).save(any(Wallet.class));
+    }
+
+    @Test
+    void withdrawFunds_ShouldCountInsufficientFundsAndError() {
+        Wallet wallet = new Wallet(walletId, userId, BigDecimal.valueOf(100), LocalDateTime.now(), 0L);
+        when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
+
+        assertThrows(InsufficientFundsException.class,
+                () -> walletService.withdrawFunds(walletId, BigDecimal.valueOf(150), idempotencyKey));
+
+        assertEquals(1, meterRegistry.counter("wallet.insufficient.funds", "operation", "withdrawal").count());
+        assertEquals(1, meterRegistry.counter("wallet.operation.errors",
+                "operation", "withdrawal", "exception", "InsufficientFundsException").count());
+        assertEquals(1, meterRegistry.get("wallet.operation").tags("operation", "withdrawal", "outcome", "error").timer().count());
     }
 
     @Test
     void depositFunds_ShouldDoNothing_WhenAlreadyProcessed() {
-        when(walletRepository.hasProcessed(idempotencyKey)).thenReturn(true);
+        Wallet wallet = new Wallet(walletId, userId, BigDecimal.ZERO, LocalDateTime.now());
+        when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
+        doThrow(new DuplicateOperationException(idempotencyKey)).when(walletRepository).recordTransaction(any(Transaction.class));
+        when(walletRepository.findProcessed(idempotencyKey, walletId)).thenReturn(Optional.of(
+                processed(TransactionType.DEPOSIT, BigDecimal.valueOf(50))));
 
-        walletService.depositFunds(walletId, BigDecimal.valueOf(50), idempotencyKey);
+        assertFalse(walletService.depositFunds(walletId, BigDecimal.valueOf(50), idempotencyKey));
 
-        verify(walletRepository, never()).findById(walletId);
+        assertEquals(0L, wallet.getBalanceMinor());
         verify(walletRepository, never()).save(any(Wallet.class));
+        assertEquals(1, meterRegistry.counter("wallet.idempotent.hits", "operation", "deposit", "source", "database").count());
+        assertEquals(1, meterRegistry.get("wallet.operation").tags("operation", "deposit", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void depositFunds_ShouldRejectKey_WhenReusedWithAnotherAmount() {
+        Wallet wallet = new Wallet(walletId, userId, BigDecimal.ZERO, LocalDateTime.now());
+        when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
+        doThrow(new DuplicateOperationException(idempotencyKey)).when(walletRepository).recordTransaction(any(Transaction.class));
+        when(walletRepository.findProcessed(idempotencyKey, walletId)).thenReturn(Optional.of(
+                processed(TransactionType.DEPOSIT, BigDecimal.valueOf(50))));
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> walletService.depositFunds(walletId, BigDecimal.valueOf(70), idempotencyKey));
+
+        assertEquals(0L, wallet.getBalanceMinor());
+        assertTrue(idempotencyCache.find(idempotencyKey, walletId).isEmpty());
+    }
+
+    @Test
+    void depositFunds_ShouldAnswerFromCache_WhenRetried() {
+        Wallet wallet = new Wallet(walletId, userId, BigDecimal.ZERO, LocalDateTime.now());
+        when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
+
+        walletService.depositFunds(walletId, BigDecimal.valueOf(50), idempotencyKey);
+        walletService.depositFunds(walletId, BigDecimal.valueOf(50), idempotencyKey);
+
+        assertEquals(5_000L, wallet.getBalanceMinor());
+        verify(walletRepository, times(1)).findByIdForUpdate(walletId);
+        verify(transactionManager, times(1)).commit(any());
+        assertEquals(1, idempotencyCache.hitCount());
+    }
+
+    @Test
+    void depositFunds_ShouldNotCacheKey_WhenCommitFails() {
+        Wallet wallet = new Wallet(walletId, userId, BigDecimal.ZERO, LocalDateTime.now());
+        when(walletRepository.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
+        doThrow(new TransactionSystemException("commit falhou")).when(transactionManager).commit(any());
+
+        assertThrows(TransactionSystemException.class,
+                () -> walletService.depositFunds(walletId, BigDecimal.valueOf(50), idempotencyKey));
+
+        assertTrue(idempotencyCache.find(idempotencyKey, walletId).isEmpty());
+    }
+
+    @Test
+    void depositFunds_ShouldGoThroughWriteQueue_WhenQueued() {
+        when(walletWriteQueue.submit(any(BatchOperation.class), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(BatchItemResult.Status.APPLIED));
+
+        serviceWith(ConcurrencyStrategy.QUEUED).depositFunds(walletId, BigDecimal.valueOf(50), idempotencyKey);
+
+        verify(walletWriteQueue).submit(eq(new BatchOperation(BatchOperation.Type.DEPOSIT, walletId, null, BigDecimal.valueOf(50), idempotencyKey)),
+                anyLong());
+        verifyNoInteractions(walletRepository, transactionManager);
+    }
+
+    @Test
+    void withdrawFunds_ShouldRejectInsufficientFunds_WhenQueued() {
+        when(walletWriteQueue.submit(any(BatchOperation.class), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(BatchItemResult.Status.INSUFFICIENT_FUNDS));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                serviceWith(ConcurrencyStrategy.QUEUED).withdrawFunds(walletId, BigDecimal.valueOf(150), idempotencyKey));
+
+        assertEquals("Valor de saque inválido", exception.getMessage());
+    }
+
+    @Test
+    void depositFunds_ShouldAnswerServiceUnavailable_WhenWriteQueueTimesOut() {
+        when(walletWriteQueue.submit(any(BatchOperation.class), anyLong())).thenReturn(new CompletableFuture<>());
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                serviceWith(ConcurrencyStrategy.QUEUED).depositFunds(walletId, BigDecimal.valueOf(50), idempotencyKey));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        assertTrue(idempotencyCache.find(idempotencyKey, walletId).isEmpty());
+    }
+
+    @Test
+    void withdrawFunds_ShouldDoNothing_WhenAlreadyProcessedAndAtomic() {
+        when(walletRepository.applyWithdrawal(walletId, 10_000L)).thenReturn(OptionalLong.empty());
+        when(walletRepository.findBalanceById(walletId)).thenReturn(Optional.of(BigDecimal.ZERO));
+        when(walletRepository.findProcessed(idempotencyKey, walletId)).thenReturn(Optional.of(
+                processed(TransactionType.WITHDRAWAL, BigDecimal.valueOf(100))));
+
+        serviceWith(ConcurrencyStrategy.ATOMIC).withdrawFunds(walletId, BigDecimal.valueOf(100), idempotencyKey);
+
+        verify(walletRepository, never()).recordTransaction(any(Transaction.class));
     }
 
     @Test
     void transferFunds_ShouldTransferAmount_WhenValid() {
         Wallet fromWallet = new Wallet(walletId, userId, BigDecimal.valueOf(100), LocalDateTime.now());
         Wallet toWallet = new Wallet(UUID.randomUUID(), userId, BigDecimal.ZERO, LocalDateTime.now());
-        when(walletRepository.findById(fromWallet.getId())).thenReturn(Optional.of(fromWallet));
-        when(walletRepository.findById(toWallet.getId())).thenReturn(Optional.of(toWallet));
-        when(walletRepository.hasProcessed(idempotencyKey)).thenReturn(false);
+        when(walletRepository.findAllByIdForUpdate(anyCollection()))
+                .thenReturn(Map.of(fromWallet.getId(), fromWallet, toWallet.getId(), toWallet));
         when(walletRepository.save(any(Wallet.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         walletService.transferFunds(fromWallet.getId(), toWallet.getId(), BigDecimal.valueOf(50), idempotencyKey);
 
-        assertEquals(BigDecimal.valueOf(50), fromWallet.getBalance());
-        assertEquals(BigDecimal.valueOf(50), toWallet.getBalance());
+        assertEquals(5_000L, fromWallet.getBalanceMinor());
+        assertEquals(5_000L, toWallet.getBalanceMinor());
         verify(walletRepository, times(2)).recordTransaction(any(Transaction.class));
         verify(walletRepository, times(2)).save(any(Wallet.class));
+        verify(outboxRepository).append(argThat(events -> events.size() == 2
+                && hasChange(events.get(0), fromWallet.getId(), BigDecimal.valueOf(-50), BigDecimal.valueOf(50))
+                && hasChange(events.get(1), toWallet.getId(), BigDecimal.valueOf(50), BigDecimal.valueOf(50))));
     }
 
     @Test
@@ -124,5 +409,32 @@ class WalletServiceTest {
             walletService.transferFunds(walletId, walletId, BigDecimal.valueOf(50), idempotencyKey);
         });
         verify(walletRepository, never()).findById(any());
+        verify(walletRepository, never()).findAllByIdForUpdate(any());
+    }
+
+    @Test
+    void transferFunds_ShouldThrowException_WhenDestinationNotFound() {
+        Wallet fromWallet = new Wallet(walletId, userId, BigDecimal.valueOf(100), LocalDateTime.now());
+        UUID toWalletId = UUID.randomUUID();
+        when(walletRepository.findAllByIdForUpdate(anyCollection())).thenReturn(Map.of(walletId, fromWallet));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            walletService.transferFunds(walletId, toWalletId, BigDecimal.valueOf(50), idempotencyKey);
+        });
+
+        assertEquals("Carteira de destino não encontrada", exception.getMessage());
+        assertEquals(10_000L, fromWallet.getBalanceMinor());
+        verify(walletRepository, never()).save(any(Wallet.class));
+        verify(walletRepository, never()).recordTransaction(any(Transaction.class));
+    }
+
+    private ProcessedOperation processed(TransactionType type, BigDecimal amount) {
+        return new ProcessedOperation(UUID.randomUUID(), walletId, type, amount, LocalDateTime.now());
+    }
+
+    private static boolean hasChange(BalanceChangeEvent event, UUID walletId, BigDecimal delta, BigDecimal newBalance) {
+        return event.walletId().equals(walletId)
+                && event.delta().compareTo(delta) == 0
+                && event.newBalance().compareTo(newBalance) == 0;
     }
-}
\ No newline at end of file
+}
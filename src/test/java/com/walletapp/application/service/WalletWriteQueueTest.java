@@ -0,0 +1,78 @@
+package com.walletapp.application.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WalletWriteQueueTest {
+
+    @Mock
+    private BatchOperationService batchOperationService;
+
+    private WalletWriteQueue walletWriteQueue;
+
+    @AfterEach
+    void tearDown() {
+        if (walletWriteQueue != null) {
+            walletWriteQueue.shutdown();
+        }
+    }
+
+    @Test
+    void submit_ShouldFailOnlyOffendingOperation_WhenCoalescedBlockFails() throws Exception {
+        UUID walletId = UUID.randomUUID();
+        BatchOperation good = deposit(walletId);
+        BatchOperation bad = deposit(walletId);
+        when(batchOperationService.executeChunk(anyList())).thenAnswer(invocation -> {
+            List<BatchOperation> chunk = invocation.getArgument(0);
+            if (chunk.contains(bad)) {
+                throw new IllegalStateException("falha do item");
+            }
+            return chunk.stream().map(op -> new BatchItemResult(op.idempotencyKey(), BatchItemResult.Status.APPLIED)).toList();
+        });
+        // Linger longo: as duas operações caem no mesmo bloco
+        walletWriteQueue = new WalletWriteQueue(batchOperationService, 1, 10, 100, 200);
+
+        CompletableFuture<BatchItemResult.Status> goodResult = walletWriteQueue.submit(good, deadline());
+        CompletableFuture<BatchItemResult.Status> badResult = walletWriteQueue.submit(bad, deadline());
+
+        assertEquals(BatchItemResult.Status.APPLIED, goodResult.get(5, TimeUnit.SECONDS));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> badResult.get(5, TimeUnit.SECONDS));
+        assertEquals("falha do item", failure.getCause().getMessage());
+        verify(batchOperationService).executeChunk(List.of(good, bad));
+    }
+
+    @Test
+    void submit_ShouldReject_AfterShutdown() {
+        walletWriteQueue = new WalletWriteQueue(batchOperationService, 1, 10, 100, 0);
+        walletWriteQueue.shutdown();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> walletWriteQueue.submit(deposit(UUID.randomUUID()), deadline()));
+
+        assertEquals("Fila de escrita encerrada", exception.getMessage());
+        verifyNoInteractions(batchOperationService);
+    }
+
+    private static long deadline() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    }
+
+    private static BatchOperation deposit(UUID walletId) {
+        return new BatchOperation(BatchOperation.Type.DEPOSIT, walletId, null, BigDecimal.ONE, UUID.randomUUID());
+    }
+}
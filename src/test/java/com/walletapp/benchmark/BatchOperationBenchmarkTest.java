@@ -0,0 +1,62 @@
+package com.walletapp.benchmark;
+
+import com.walletapp.application.service.BatchOperation;
+import com.walletapp.application.service.BatchOperationService;
+import com.walletapp.application.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compara itens/s de depósitos enviados um a um com o mesmo volume enviado pelo endpoint de lote.
+ * Executar com: mvn test -Dbenchmark=true -Dtest=BatchOperationBenchmarkTest
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BatchOperationBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(BatchOperationBenchmarkTest.class);
+    private static final int WALLETS = 1_000;
+    private static final int DEPOSITS = 20_000;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private BatchOperationService batchOperationService;
+
+    @Test
+    void compareSingleCallsWithBatch() {
+        List<UUID> wallets = new ArrayList<>();
+        for (int i = 0; i < WALLETS; i++) {
+            wallets.add(walletService.createWallet(UUID.randomUUID()));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < DEPOSITS; i++) {
+            walletService.depositFunds(wallets.get(i % WALLETS), BigDecimal.ONE, UUID.randomUUID());
+        }
+        double singleSeconds = (System.nanoTime() - start) / 1e9;
+
+        List<BatchOperation> operations = new ArrayList<>(DEPOSITS);
+        for (int i = 0; i < DEPOSITS; i++) {
+            operations.add(new BatchOperation(BatchOperation.Type.DEPOSIT, wallets.get(i % WALLETS), null,
+                    BigDecimal.ONE, UUID.randomUUID()));
+        }
+        start = System.nanoTime();
+        for (int from = 0; from < DEPOSITS; from += 10_000) {
+            batchOperationService.execute(operations.subList(from, Math.min(DEPOSITS, from + 10_000)));
+        }
+        double batchSeconds = (System.nanoTime() - start) / 1e9;
+
+        logger.info("{} depósitos: chamadas avulsas {} itens/s, lote {} itens/s", DEPOSITS,
+                String.format("%.0f", DEPOSITS / singleSeconds), String.format("%.0f", DEPOSITS / batchSeconds));
+    }
+}
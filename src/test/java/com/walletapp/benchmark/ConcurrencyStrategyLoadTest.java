@@ -0,0 +1,82 @@
+package com.walletapp.benchmark;
+
+import com.walletapp.application.service.BalanceCache;
+import com.walletapp.application.service.ConcurrencyRetry;
+import com.walletapp.application.service.ConcurrencyStrategy;
+import com.walletapp.application.service.IdempotencyCache;
+import com.walletapp.application.service.WalletMetrics;
+import com.walletapp.application.service.WalletService;
+import com.walletapp.application.service.WalletWriteQueue;
+import com.walletapp.domain.repository.OutboxRepository;
+import com.walletapp.domain.repository.WalletRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compara vazão e p99 de depósitos com lock pessimista e com controle otimista de versão,
+ * com baixa contenção (uma carteira por thread) e alta contenção (todas as threads na mesma carteira).
+ * Executar com: mvn test -Dbenchmark=true -Dtest=ConcurrencyStrategyLoadTest
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ConcurrencyStrategyLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyStrategyLoadTest.class);
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 500;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ConcurrencyRetry concurrencyRetry;
+
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+
+    @Autowired
+    private BalanceCache balanceCache;
+
+    @Autowired
+    private WalletMetrics walletMetrics;
+
+    @Autowired
+    private WalletWriteQueue walletWriteQueue;
+
+    @Test
+    void compareStrategies() throws Exception {
+        for (ConcurrencyStrategy strategy : ConcurrencyStrategy.values()) {
+            WalletService walletService = new WalletService(walletRepository, outboxRepository, transactionTemplate, concurrencyRetry, strategy, idempotencyCache, walletWriteQueue, Duration.ofSeconds(30), balanceCache, walletMetrics);
+
+            List<UUID> ownWallets = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                ownWallets.add(walletService.createWallet(UUID.randomUUID()));
+            }
+            LoadTestSupport.Result low = LoadTestSupport.run(THREADS, OPERATIONS_PER_THREAD, (thread, i) ->
+                    walletService.depositFunds(ownWallets.get(thread), BigDecimal.ONE, UUID.randomUUID()));
+
+            UUID hotWallet = walletService.createWallet(UUID.randomUUID());
+            LoadTestSupport.Result high = LoadTestSupport.run(THREADS, OPERATIONS_PER_THREAD, (thread, i) ->
+                    walletService.depositFunds(hotWallet, BigDecimal.ONE, UUID.randomUUID()));
+
+            logger.info("{} - baixa contenção: {}", strategy, low);
+            logger.info("{} - alta contenção: {}", strategy, high);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.walletapp.benchmark;
+
+import com.walletapp.application.service.BalanceCache;
+import com.walletapp.application.service.BatchOperationService;
+import com.walletapp.application.service.ConcurrencyRetry;
+import com.walletapp.application.service.ConcurrencyStrategy;
+import com.walletapp.application.service.IdempotencyCache;
+import com.walletapp.application.service.WalletMetrics;
+import com.walletapp.application.service.WalletService;
+import com.walletapp.application.service.WalletWriteQueue;
+import com.walletapp.domain.repository.OutboxRepository;
+import com.walletapp.domain.repository.WalletRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compara depósitos por segundo com uma transação por requisição (PESSIMISTIC) e com group commit
+ * (QUEUED) para diferentes janelas de espera, em carteiras distintas por thread.
+ * Executar com: mvn test -Dbenchmark=true -Dtest=GroupCommitBenchmarkTest
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class GroupCommitBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitBenchmarkTest.class);
+    private static final int THREADS = 64;
+    private static final int OPERATIONS_PER_THREAD = 200;
+    private static final Duration QUEUE_TIMEOUT = Duration.ofSeconds(30);
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ConcurrencyRetry concurrencyRetry;
+
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+
+    @Autowired
+    private BalanceCache balanceCache;
+
+    @Autowired
+    private WalletMetrics walletMetrics;
+
+    @Autowired
+    private BatchOperationService batchOperationService;
+
+    @Autowired
+    private WalletWriteQueue walletWriteQueue;
+
+    @Test
+    void compareSingleCommitWithGroupCommit() throws Exception {
+        WalletService single = new WalletService(walletRepository, outboxRepository, transactionTemplate, concurrencyRetry,
+                ConcurrencyStrategy.PESSIMISTIC, idempotencyCache, walletWriteQueue, QUEUE_TIMEOUT, balanceCache, walletMetrics);
+        logger.info("Commit por requisição: {}", run(single));
+
+        for (long lingerMillis : new long[]{0, 1, 5}) {
+            WalletWriteQueue queue = new WalletWriteQueue(batchOperationService, 1, 500, 10_000, lingerMillis);
+            try {
+                WalletService grouped = new WalletService(walletRepository, outboxRepository, transactionTemplate, concurrencyRetry,
+                        ConcurrencyStrategy.QUEUED, idempotencyCache, queue, QUEUE_TIMEOUT, balanceCache, walletMetrics);
+                LoadTestSupport.Result result = run(grouped);
+                WalletWriteQueue.Stats stats = queue.stats();
+                logger.info("Group commit (linger {} ms): {}; {} commits, {} itens/commit, {} ms/commit",
+                        lingerMillis, result, stats.batches(),
+                        String.format("%.1f", stats.averageBatchSize()), String.format("%.2f", stats.averageCommitMillis()));
+            } finally {
+                queue.shutdown();
+            }
+        }
+    }
+
+    private LoadTestSupport.Result run(WalletService walletService) throws Exception {
+        List<UUID> wallets = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            wallets.add(walletService.createWallet(UUID.randomUUID()));
+        }
+        return LoadTestSupport.run(THREADS, OPERATIONS_PER_THREAD,
+                (thread, i) -> walletService.depositFunds(wallets.get(thread), BigDecimal.ONE, UUID.randomUUID()));
+    }
+}
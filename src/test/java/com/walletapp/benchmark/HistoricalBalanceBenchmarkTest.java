@@ -0,0 +1,95 @@
+package com.walletapp.benchmark;
+
+import com.walletapp.domain.model.TransactionType;
+import com.walletapp.infrastructure.persistence.JpaTransactionRepository;
+import com.walletapp.infrastructure.persistence.TransactionEntity;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara o saldo histórico somado em Java (carregando as entidades) com a soma feita no banco.
+ * Executar com: mvn test -Dbenchmark=true -Dtest=HistoricalBalanceBenchmarkTest
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HistoricalBalanceBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(HistoricalBalanceBenchmarkTest.class);
+    private static final int BATCH_SIZE = 10_000;
+    private static final int ITERATIONS = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JpaTransactionRepository jpaTransactionRepository;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000, 1_000_000})
+    void compareJavaLoopWithDatabaseSum(int transactions) {
+        UUID walletId = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        insertLedger(walletId, start, transactions);
+        LocalDateTime at = start.plusSeconds(transactions);
+
+        long expected = javaLoop(walletId, at);
+        assertEquals(expected, jpaTransactionRepository.sumSignedAmounts(walletId, at));
+
+        double loopMillis = medianMillis(() -> javaLoop(walletId, at));
+        double sumMillis = medianMillis(() -> jpaTransactionRepository.sumSignedAmounts(walletId, at));
+        logger.info("{} transações: loop em Java {} ms, soma no banco {} ms",
+                transactions, String.format("%.1f", loopMillis), String.format("%.1f", sumMillis));
+    }
+
+    private long javaLoop(UUID walletId, LocalDateTime at) {
+        long balance = 0;
+        for (TransactionEntity tx : jpaTransactionRepository.findByWalletIdAndTimestampBefore(walletId, at)) {
+            balance += tx.signedAmountMinor();
+        }
+        return balance;
+    }
+
+    private void insertLedger(UUID walletId, LocalDateTime start, int transactions) {
+        String sql = "INSERT INTO transaction_entity (id, wallet_id, amount_minor, type, timestamp, idempotency_key) VALUES (?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < transactions; i++) {
+            TransactionType type = i % 4 == 3 ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT;
+            batch.add(new Object[]{UUID.randomUUID(), walletId, (i % 100 + 1) * 100L, type.name(),
+                    Timestamp.valueOf(start.plusSeconds(i)), UUID.randomUUID()});
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    private static double medianMillis(Supplier<?> action) {
+        action.get();
+        double[] samples = new double[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long begin = System.nanoTime();
+            action.get();
+            samples[i] = (System.nanoTime() - begin) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2];
+    }
+}
@@ -0,0 +1,65 @@
+package com.walletapp.benchmark;
+
+import com.walletapp.domain.model.IdGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Vazão de INSERT numa tabela com chave primária UUID, com ids aleatórios (v4) e ordenados pelo tempo (v7),
+ * medida a cada milhão de linhas para mostrar a queda conforme o índice cresce.
+ * Executar com: mvn test -Dbenchmark=true -Dtest=IdInsertBenchmarkTest [-Dbenchmark.rows=10000000]
+ * (10M linhas no H2 em memória pedem algo como -DargLine=-Xmx6g)
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IdInsertBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(IdInsertBenchmarkTest.class);
+    private static final int BATCH_SIZE = 10_000;
+    private static final int SEGMENT = 1_000_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareRandomWithTimeOrderedIds() {
+        int rows = Integer.getInteger("benchmark.rows", 10_000_000);
+        insert("random_uuid", rows, UUID::randomUUID);
+        insert("time_ordered_uuid", rows, IdGenerator::newId);
+    }
+
+    private void insert(String table, int rows, Supplier<UUID> ids) {
+        jdbcTemplate.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, payload BIGINT)");
+        try {
+            String sql = "INSERT INTO " + table + " (id, payload) VALUES (?, ?)";
+            long total = System.nanoTime();
+            long segment = total;
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 1; i <= rows; i++) {
+                batch.add(new Object[]{ids.get(), (long) i});
+                if (batch.size() == BATCH_SIZE || i == rows) {
+                    jdbcTemplate.batchUpdate(sql, batch);
+                    batch.clear();
+                }
+                if (i % SEGMENT == 0) {
+                    long now = System.nanoTime();
+                    logger.info("{}: até {} linhas, {} linhas/s", table, i, String.format("%.0f", SEGMENT / ((now - segment) / 1e9)));
+                    segment = now;
+                }
+            }
+            logger.info("{}: {} linhas, média {} linhas/s", table, rows,
+                    String.format("%.0f", rows / ((System.nanoTime() - total) / 1e9)));
+        } finally {
+            jdbcTemplate.execute("DROP TABLE " + table);
+        }
+    }
+}
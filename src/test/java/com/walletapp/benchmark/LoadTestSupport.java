@@ -0,0 +1,77 @@
+package com.walletapp.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispara a mesma operação em várias threads e mede vazão e latência p99.
+ */
+final class LoadTestSupport {
+
+    @FunctionalInterface
+    interface Operation {
+        void run(int thread, int iteration) throws Exception;
+    }
+
+    record Result(int operations, int failures, double throughputPerSecond, double p99Millis) {
+        @Override
+        public String toString() {
+            return String.format("%d ops, %d falhas, %.0f ops/s, p99 %.2f ms", operations, failures, throughputPerSecond, p99Millis);
+        }
+    }
+
+    private LoadTestSupport() {
+    }
+
+    static Result run(int threads, int operationsPerThread, Operation operation) throws Exception {
+        return run(Executors.newFixedThreadPool(threads), threads, operationsPerThread, operation);
+    }
+
+    /**
+     * Igual a {@link #run(int, int, Operation)}, mas com o executor informado (por exemplo, de virtual threads).
+     */
+    static Result run(ExecutorService executor, int threads, int operationsPerThread, Operation operation) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        int[] failures = new int[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                long[] latencies = new long[operationsPerThread];
+                start.await();
+                for (int i = 0; i < operationsPerThread; i++) {
+                    long begin = System.nanoTime();
+                    try {
+                        operation.run(thread, i);
+                    } catch (Exception e) {
+                        failures[thread]++;
+                    }
+                    latencies[i] = System.nanoTime() - begin;
+                }
+                return latencies;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        long[] all = new long[threads * operationsPerThread];
+        int offset = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+        double elapsedSeconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        Arrays.sort(all);
+        double p99Millis = all[(int) Math.ceil(all.length * 0.99) - 1] / 1_000_000.0;
+        return new Result(all.length, Arrays.stream(failures).sum(), all.length / elapsedSeconds, p99Millis);
+    }
+}
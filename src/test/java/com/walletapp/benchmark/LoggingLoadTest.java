@@ -0,0 +1,60 @@
+package com.walletapp.benchmark;
+
+import com.walletapp.WalletserviceApplication;
+import com.walletapp.application.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Vazão de depósitos com o log do caminho quente em três configurações:
+ * appender síncrono com uma linha por requisição (como antes), AsyncAppender com o mesmo volume,
+ * e AsyncAppender com as linhas por requisição em DEBUG (padrão atual).
+ * Executar com: mvn test -Dbenchmark=true -Dtest=LoggingLoadTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoggingLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(LoggingLoadTest.class);
+    private static final int THREADS = 32;
+    private static final int OPERATIONS_PER_THREAD = 1000;
+
+    @Test
+    void compareSyncAndAsyncLogging() throws Exception {
+        Map<String, LoadTestSupport.Result> results = new LinkedHashMap<>();
+        results.put("síncrono, DEBUG", run("sync-logging", "DEBUG"));
+        results.put("assíncrono, DEBUG", run("default", "DEBUG"));
+        results.put("assíncrono, INFO", run("default", "INFO"));
+        results.forEach((label, result) -> logger.info("{}: {}", label, result));
+    }
+
+    private LoadTestSupport.Result run(String profile, String level) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(WalletserviceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profile)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:logging-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "logging.file.name=target/logging-load-test.log",
+                        "logging.level.com.walletapp=" + level)
+                .run()) {
+            WalletService walletService = context.getBean(WalletService.class);
+            // Uma carteira por thread: a disputa fica no appender, não no lock da carteira
+            List<UUID> wallets = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                wallets.add(walletService.createWallet(UUID.randomUUID()));
+            }
+            return LoadTestSupport.run(THREADS, OPERATIONS_PER_THREAD, (thread, i) ->
+                    walletService.depositFunds(wallets.get(thread), BigDecimal.ONE, UUID.randomUUID()));
+        }
+    }
+}
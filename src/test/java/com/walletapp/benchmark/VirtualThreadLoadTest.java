@@ -0,0 +1,126 @@
+package com.walletapp.benchmark;
+
+import com.walletapp.application.service.BalanceCache;
+import com.walletapp.application.service.WalletService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede vazão e p99 de depósitos via HTTP com muito mais requisições simultâneas do que threads do Tomcat,
+ * disputando poucas carteiras. O cliente usa sempre virtual threads, para que só o servidor varie.
+ * Executar uma vez em cada modo e comparar:
+ * mvn test -Dbenchmark=true -Dtest=VirtualThreadLoadTest -Dspring.threads.virtual.enabled=false
+ * mvn test -Dbenchmark=true -Dtest=VirtualThreadLoadTest -Dspring.threads.virtual.enabled=true -Djdk.tracePinnedThreads=short
+ * <p>
+ * Com virtual threads, {@link #balanceReadsOnCacheMisses()} também falha se alguma virtual thread ficar presa à
+ * carrier dentro do cache de saldos, onde a carga a partir do banco não pode segurar lock.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadLoadTest.class);
+    private static final int CONCURRENT_REQUESTS = 1_000;
+    private static final int REQUESTS_EACH = 20;
+    private static final int HOT_WALLETS = 10;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Test
+    void depositsUnderHighConcurrency() throws Exception {
+        List<UUID> wallets = new ArrayList<>();
+        for (int i = 0; i < HOT_WALLETS; i++) {
+            wallets.add(walletService.createWallet(UUID.randomUUID()));
+        }
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+
+        LoadTestSupport.Result result = LoadTestSupport.run(Executors.newVirtualThreadPerTaskExecutor(),
+                CONCURRENT_REQUESTS, REQUESTS_EACH, (thread, i) -> send(client, deposit(wallets.get((thread + i) % HOT_WALLETS))));
+
+        logger.info("{} requisições simultâneas, {}: {}", CONCURRENT_REQUESTS,
+                virtualThreads ? "virtual threads" : "threads de plataforma", result);
+    }
+
+    @Test
+    void balanceReadsOnCacheMisses() throws Exception {
+        List<UUID> wallets = new ArrayList<>();
+        for (int i = 0; i < HOT_WALLETS; i++) {
+            wallets.add(walletService.createWallet(UUID.randomUUID()));
+        }
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        List<RecordedEvent> pinnedInCache = new CopyOnWriteArrayList<>();
+
+        LoadTestSupport.Result result;
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> {
+                if (insideBalanceCache(event)) {
+                    pinnedInCache.add(event);
+                }
+            });
+            recording.startAsync();
+
+            // Cada depósito invalida a carteira, e a leitura seguinte dela volta ao banco
+            result = LoadTestSupport.run(Executors.newVirtualThreadPerTaskExecutor(),
+                    CONCURRENT_REQUESTS, REQUESTS_EACH, (thread, i) -> {
+                        UUID walletId = wallets.get((thread + i) % HOT_WALLETS);
+                        send(client, i % 2 == 0 ? deposit(walletId) : HttpRequest.newBuilder(URI.create(
+                                "http://localhost:" + port + "/wallets/" + walletId + "/balance")).GET().build());
+                    });
+            // stop() só retorna depois de entregar os eventos já gravados
+            recording.stop();
+        }
+
+        logger.info("{} requisições simultâneas com falhas de cache, {}: {}; {} pinnings no cache de saldos",
+                CONCURRENT_REQUESTS, virtualThreads ? "virtual threads" : "threads de plataforma", result, pinnedInCache.size());
+        assertThat(pinnedInCache).isEmpty();
+    }
+
+    private static boolean insideBalanceCache(RecordedEvent event) {
+        return event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+                .anyMatch(frame -> frame.getMethod().getType().getName().equals(BalanceCache.class.getName()));
+    }
+
+    private HttpRequest deposit(UUID walletId) {
+        return HttpRequest.newBuilder(URI.create(
+                        "http://localhost:" + port + "/wallets/" + walletId + "/deposit?amount=" + BigDecimal.ONE))
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private static void send(HttpClient client, HttpRequest request) throws Exception {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+    }
+}
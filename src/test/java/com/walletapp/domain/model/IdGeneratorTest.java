@@ -0,0 +1,37 @@
+package com.walletapp.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdGeneratorTest {
+
+    @Test
+    void newId_ShouldBeVersion7WithTimestampPrefix() {
+        long before = System.currentTimeMillis();
+        UUID id = IdGenerator.newId();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= after + 1);
+    }
+
+    @Test
+    void newId_ShouldIncreaseMonotonically_WithinSameMillisecond() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(IdGenerator.newId());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            // Compara sem sinal, como os bancos comparam UUIDs
+            assertTrue(Long.compareUnsigned(ids.get(i - 1).getMostSignificantBits(), ids.get(i).getMostSignificantBits()) < 0);
+        }
+    }
+}
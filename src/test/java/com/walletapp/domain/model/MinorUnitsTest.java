@@ -0,0 +1,37 @@
+package com.walletapp.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinorUnitsTest {
+
+    @Test
+    void of_ShouldConvertToCents_AndBackWithFixedScale() {
+        assertEquals(1050, MinorUnits.of(new BigDecimal("10.5")));
+        assertEquals(700, MinorUnits.of(new BigDecimal("7.000")));
+        assertEquals(new BigDecimal("10.50"), MinorUnits.toDecimal(1050));
+    }
+
+    @Test
+    void of_ShouldRejectFractionOfCent() {
+        assertThrows(IllegalArgumentException.class, () -> MinorUnits.of(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void of_ShouldRejectValueOutOfLongRange() {
+        assertThrows(IllegalArgumentException.class, () -> MinorUnits.of(new BigDecimal("1E+18")));
+    }
+
+    @Test
+    void add_ShouldFailOnOverflow() {
+        assertThrows(ArithmeticException.class, () -> MinorUnits.add(Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    void validateDepositAmount_ShouldRejectFractionOfCent() {
+        assertThrows(IllegalArgumentException.class, () -> Wallet.validateDepositAmount(new BigDecimal("1.001")));
+    }
+}
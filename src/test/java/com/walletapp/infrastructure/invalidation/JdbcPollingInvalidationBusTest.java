@@ -0,0 +1,73 @@
+package com.walletapp.infrastructure.invalidation;
+
+import com.walletapp.infrastructure.persistence.CacheInvalidationEntity;
+import com.walletapp.infrastructure.persistence.JpaCacheInvalidationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcPollingInvalidationBusTest {
+
+    @Mock
+    private JpaCacheInvalidationRepository jpaCacheInvalidationRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private JdbcPollingInvalidationBus bus;
+    private final List<Collection<UUID>> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(jpaCacheInvalidationRepository.findMaxId()).thenReturn(0L);
+        // Poller parado: o teste chama poll() diretamente
+        bus = new JdbcPollingInvalidationBus(jpaCacheInvalidationRepository, transactionTemplate, 3_600_000, 100,
+                Duration.ofMinutes(10));
+        bus.subscribe(received::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    @Test
+    void poll_ShouldApplyEachRowOnce_WhenOverlapReadsItAgain() {
+        UUID hotWallet = UUID.randomUUID();
+        UUID otherWallet = UUID.randomUUID();
+        CacheInvalidationEntity first = row(1, hotWallet);
+        CacheInvalidationEntity second = row(2, otherWallet);
+        when(jpaCacheInvalidationRepository.findByIdGreaterThanOrderByIdAsc(anyLong()))
+                .thenReturn(List.of(first))
+                .thenReturn(List.of(first))
+                .thenReturn(List.of(first, second));
+
+        bus.poll();
+        bus.poll();
+        bus.poll();
+
+        assertEquals(List.of(Set.of(hotWallet), Set.of(otherWallet)), received);
+    }
+
+    private static CacheInvalidationEntity row(long id, UUID walletId) {
+        CacheInvalidationEntity entity = CacheInvalidationEntity.of(walletId, UUID.randomUUID());
+        entity.setId(id);
+        return entity;
+    }
+}
@@ -0,0 +1,215 @@
+package com.walletapp.infrastructure.persistence;
+
+import com.walletapp.domain.model.BalancePoint;
+import com.walletapp.domain.model.MinorUnits;
+import com.walletapp.domain.model.TimelineInterval;
+import com.walletapp.domain.model.Transaction;
+import com.walletapp.domain.model.TransactionType;
+import com.walletapp.domain.model.Wallet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "wallet.checkpoint.interval=5")
+class BalanceCheckpointTest {
+
+    @Autowired
+    private WalletJpaRepository walletJpaRepository;
+
+    @Autowired
+    private JpaWalletRepository jpaWalletRepository;
+
+    @Autowired
+    private JpaTransactionRepository jpaTransactionRepository;
+
+    @Autowired
+    private JpaBalanceCheckpointRepository jpaBalanceCheckpointRepository;
+
+    @Autowired
+    private BalanceCheckpointManager balanceCheckpointManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID walletId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        walletId = walletJpaRepository.save(new Wallet(UUID.randomUUID())).getId();
+        start = LocalDateTime.of(2025, 1, 1, 0, 0);
+    }
+
+    @Test
+    void historicalBalance_ShouldMatchFullReplay_WhenCheckpointsExist() {
+        for (int i = 0; i < 23; i++) {
+            record(transactionAt(i));
+        }
+
+        assertEquals(4, jpaBalanceCheckpointRepository.findAll().stream()
+                .filter(checkpoint -> checkpoint.getWalletId().equals(walletId))
+                .count());
+        // Último checkpoint na 20ª transação, gravado quando a 21ª chegou
+        assertEquals(3, transactionsSinceCheckpoint());
+        for (int i = -1; i <= 23; i++) {
+            LocalDateTime at = start.plusMinutes(i);
+            assertEquals(0, fullReplay(at).compareTo(walletJpaRepository.getHistoricalBalance(walletId, at)), "at " + at);
+        }
+    }
+
+    @Test
+    void historicalBalance_ShouldMatchFullReplay_WhenTransactionsShareTimestamp() {
+        for (int i = 0; i < 12; i++) {
+            record(transactionAt(i / 4));
+        }
+
+        for (int i = 0; i <= 3; i++) {
+            LocalDateTime at = start.plusMinutes(i);
+            assertEquals(0, fullReplay(at).compareTo(walletJpaRepository.getHistoricalBalance(walletId, at)), "at " + at);
+        }
+    }
+
+    @Test
+    void checkpoint_ShouldWaitForNewerTimestamp_WhenLateRowSharesNewestTimestamp() {
+        for (int i = 0; i < 5; i++) {
+            record(transactionAt(0));
+        }
+        // Gravada depois, no mesmo instante e com o menor id possível: ficaria fora de um checkpoint fechado por (timestamp, id)
+        record(new Transaction(new UUID(0, 1), walletId, BigDecimal.valueOf(7),
+                TransactionType.DEPOSIT, start, UUID.randomUUID()));
+        assertEquals(0, checkpointCount());
+
+        record(transactionAt(1));
+
+        assertEquals(1, checkpointCount());
+        assertEquals(0, fullReplay(start).compareTo(walletJpaRepository.getHistoricalBalance(walletId, start)));
+        assertEquals(0, fullReplay(start.plusMinutes(1))
+                .compareTo(walletJpaRepository.getHistoricalBalance(walletId, start.plusMinutes(1))));
+    }
+
+    @Test
+    void checkpoint_ShouldFollowWalletCounter_WhenBalanceIsUpdatedAtomically() {
+        // Ordem do modo atômico: o UPDATE conta a transação antes de a linha do ledger ser gravada
+        for (int i = 0; i < 7; i++) {
+            Transaction transaction = transactionAt(i);
+            transactionTemplate.executeWithoutResult(status -> {
+                walletJpaRepository.applyDeposit(walletId, MinorUnits.of(transaction.amount()));
+                walletJpaRepository.recordTransaction(transaction);
+            });
+        }
+
+        assertEquals(1, checkpointCount());
+        assertEquals(2, transactionsSinceCheckpoint());
+        for (int i = 0; i <= 7; i++) {
+            LocalDateTime at = start.plusMinutes(i);
+            assertEquals(0, fullReplay(at).compareTo(walletJpaRepository.getHistoricalBalance(walletId, at)), "at " + at);
+        }
+    }
+
+    @Test
+    void backfill_ShouldCreateCheckpointsForExistingLedger() {
+        for (int i = 0; i < 17; i++) {
+            jpaTransactionRepository.save(TransactionEntity.fromDomain(transactionAt(i)));
+        }
+
+        new BalanceCheckpointBackfillJob(jpaWalletRepository, balanceCheckpointManager).backfill();
+
+        assertEquals(3, jpaBalanceCheckpointRepository.findAll().stream()
+                .filter(checkpoint -> checkpoint.getWalletId().equals(walletId))
+                .count());
+        for (int i = 0; i <= 17; i++) {
+            LocalDateTime at = start.plusMinutes(i);
+            assertEquals(0, fullReplay(at).compareTo(walletJpaRepository.getHistoricalBalance(walletId, at)), "at " + at);
+        }
+    }
+
+    @Test
+    void balanceTimeline_ShouldMatchHistoricalBalanceAtEachBucketEnd() {
+        // Uma transação a cada 20 minutos: checkpoints antes e dentro do período, horas com e sem movimento
+        for (int i = 0; i < 30; i++) {
+            record(transactionAt(i * 20));
+        }
+        LocalDateTime from = start.plusHours(2);
+        LocalDateTime to = start.plusHours(14);
+
+        List<BalancePoint> timeline = walletJpaRepository.getBalanceTimeline(walletId, from, to, TimelineInterval.HOUR);
+
+        assertEquals(12, timeline.size());
+        for (int i = 0; i < timeline.size(); i++) {
+            BalancePoint point = timeline.get(i);
+            assertEquals(from.plusHours(i), point.start());
+            assertEquals(from.plusHours(i + 1), point.end());
+            // O fechamento exclui a transação registrada exatamente no fim do intervalo
+            BigDecimal expected = fullReplay(point.end().minusSeconds(1));
+            assertEquals(0, expected.compareTo(point.closingBalance()), "at " + point.end());
+        }
+    }
+
+    @Test
+    void balanceTimeline_ShouldMatchFullReplay_WhenTransactionsShareTimestamp() {
+        // Três transações a cada 20 minutos, gravadas com ids decrescentes: cada linha chega depois de outra do mesmo
+        // instante com id maior, e os checkpoints (a cada 5) caem no meio dos grupos
+        long nextId = 10_000;
+        for (int i = 0; i < 30; i++) {
+            Transaction base = transactionAt(i / 3 * 20);
+            record(new Transaction(new UUID(1, nextId--), walletId, base.amount(),
+                    base.type(), base.timestamp(), UUID.randomUUID()));
+        }
+        // Abertura exatamente num instante compartilhado e já coberto por checkpoint
+        LocalDateTime from = start.plusHours(1);
+        LocalDateTime to = start.plusHours(4);
+
+        List<BalancePoint> timeline = walletJpaRepository.getBalanceTimeline(walletId, from, to, TimelineInterval.HOUR);
+
+        assertEquals(3, timeline.size());
+        for (BalancePoint point : timeline) {
+            BigDecimal expected = fullReplay(point.end().minusSeconds(1));
+            assertEquals(0, expected.compareTo(point.closingBalance()), "at " + point.end());
+        }
+    }
+
+    // Caminho do modo pessimista: ledger primeiro, depois o saldo, cujo UPDATE conta a transação e decide o checkpoint.
+    // O saldo histórico soma o ledger e não lê a coluna de saldo, então todo lançamento entra nela como depósito
+    private void record(Transaction transaction) {
+        transactionTemplate.executeWithoutResult(status -> {
+            walletJpaRepository.recordTransaction(transaction);
+            Wallet wallet = walletJpaRepository.findByIdForUpdate(walletId).orElseThrow();
+            wallet.deposit(MinorUnits.of(transaction.amount()));
+            walletJpaRepository.save(wallet);
+        });
+    }
+
+    private int transactionsSinceCheckpoint() {
+        return jpaWalletRepository.findById(walletId).orElseThrow().getTransactionsSinceCheckpoint();
+    }
+
+    private long checkpointCount() {
+        return jpaBalanceCheckpointRepository.findAll().stream()
+                .filter(checkpoint -> checkpoint.getWalletId().equals(walletId))
+                .count();
+    }
+
+    private Transaction transactionAt(int minute) {
+        // Alterna créditos e débitos para que o saldo dependa da ordem e do ponto de corte
+        TransactionType type = minute % 3 == 2 ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT;
+        return new Transaction(UUID.randomUUID(), walletId, BigDecimal.valueOf(10 + minute), type,
+                start.plusMinutes(minute), UUID.randomUUID());
+    }
+
+    private BigDecimal fullReplay(LocalDateTime at) {
+        long balance = 0;
+        for (TransactionEntity tx : jpaTransactionRepository.findByWalletIdAndTimestampBefore(walletId, at)) {
+            balance += tx.signedAmountMinor();
+        }
+        return MinorUnits.toDecimal(balance);
+    }
+}
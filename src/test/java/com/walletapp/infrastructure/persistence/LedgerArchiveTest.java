@@ -0,0 +1,148 @@
+package com.walletapp.infrastructure.persistence;
+
+import com.walletapp.domain.model.MinorUnits;
+import com.walletapp.domain.model.TimelineInterval;
+import com.walletapp.domain.model.Transaction;
+import com.walletapp.domain.model.TransactionCursor;
+import com.walletapp.domain.model.TransactionType;
+import com.walletapp.domain.model.Wallet;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Banco próprio: o arquivamento apaga as linhas antigas de todas as carteiras. max-segment-bytes=1 faz cada
+// carteira ir para um segmento diferente
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive-test;DB_CLOSE_DELAY=-1",
+        "wallet.checkpoint.interval=5",
+        "wallet.archive.horizon=P5D",
+        "wallet.archive.max-segment-bytes=1",
+        "wallet.archive.chunk-size=2",
+        "wallet.reconciliation.max-rows-per-second=0"
+})
+class LedgerArchiveTest {
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("ledger-archive-test").toString();
+        registry.add("wallet.archive.directory", () -> directory);
+    }
+
+    @Autowired
+    private WalletJpaRepository walletJpaRepository;
+
+    @Autowired
+    private JpaWalletRepository jpaWalletRepository;
+
+    @Autowired
+    private JpaTransactionHistoryRepository transactionHistoryRepository;
+
+    @Autowired
+    private JpaTransactionRepository jpaTransactionRepository;
+
+    @Autowired
+    private LedgerArchiver ledgerArchiver;
+
+    @Autowired
+    private LedgerArchive ledgerArchive;
+
+    @Autowired
+    private JpaLedgerSegmentRepository jpaLedgerSegmentRepository;
+
+    @Autowired
+    private LedgerReconciler ledgerReconciler;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void archive_ShouldKeepHistoryQueriesUnchangedAndRemoveColdRows() {
+        // Dez dias de ledger, uma transação a cada 3 horas, em três carteiras: metade fica mais velha que o horizonte
+        LocalDateTime start = LocalDateTime.now().minusDays(10).truncatedTo(ChronoUnit.HOURS);
+        List<UUID> walletIds = new ArrayList<>();
+        for (int w = 0; w < 3; w++) {
+            UUID walletId = walletJpaRepository.save(new Wallet(UUID.randomUUID())).getId();
+            long balance = 0;
+            for (int i = 0; i < 80; i++) {
+                TransactionType type = i % 3 == 2 ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT;
+                Transaction transaction = new Transaction(UUID.randomUUID(), walletId, BigDecimal.valueOf(10 + i + w),
+                        type, start.plusHours(3L * i), UUID.randomUUID());
+                walletJpaRepository.recordTransaction(transaction);
+                balance += type.isCredit() ? MinorUnits.of(transaction.amount()) : -MinorUnits.of(transaction.amount());
+            }
+            long finalBalance = balance;
+            transactionTemplate.executeWithoutResult(status -> jpaWalletRepository.incrementBalance(walletId, finalBalance));
+            walletIds.add(walletId);
+        }
+        Map<UUID, Snapshot> before = new LinkedHashMap<>();
+        walletIds.forEach(walletId -> before.put(walletId, snapshot(walletId, start)));
+        assertThat(before.values()).allSatisfy(snapshot -> {
+            assertThat(snapshot.pages()).hasSize(80);
+            assertThat(snapshot.export()).isEqualTo(snapshot.pages());
+        });
+
+        // Outra réplica, aberta antes do arquivamento, com o mesmo banco e o mesmo diretório
+        LedgerArchive replica = new LedgerArchive(jpaLedgerSegmentRepository, ledgerArchive.directory());
+        assertThat(replica.cutoff()).isNull();
+
+        long archived = ledgerArchiver.archive();
+
+        LocalDateTime cutoff = ledgerArchive.cutoff();
+        assertThat(cutoff).isNotNull();
+        assertThat(archived).isGreaterThan(0);
+        assertThat(replica.cutoff()).isEqualTo(cutoff);
+        walletIds.forEach(walletId ->
+                assertThat(replica.archivedBalance(walletId)).isEqualTo(ledgerArchive.archivedBalance(walletId)));
+        for (UUID walletId : walletIds) {
+            assertThat(jpaTransactionRepository.findByWalletIdAndTimestampBefore(walletId, cutoff.minusNanos(1000)))
+                    .isEmpty();
+            assertThat(snapshot(walletId, start)).isEqualTo(before.get(walletId));
+        }
+        assertThat(ledgerReconciler.reconcile().drifts()).isEmpty();
+        // O corte só avança alguns segundos e não há transações nesse intervalo
+        assertThat(ledgerArchiver.archive()).isZero();
+    }
+
+    private Snapshot snapshot(UUID walletId, LocalDateTime start) {
+        List<BigDecimal> balances = new ArrayList<>();
+        for (int hour = -1; hour <= 240; hour += 5) {
+            balances.add(walletJpaRepository.getHistoricalBalance(walletId, start.plusHours(hour)).stripTrailingZeros());
+        }
+        List<BigDecimal> timeline = walletJpaRepository.getBalanceTimeline(walletId, start.minusDays(1), start.plusDays(11),
+                TimelineInterval.DAY).stream().map(point -> point.closingBalance().stripTrailingZeros()).toList();
+
+        // Páginas de tamanho 7 para que uma delas cruze o corte
+        List<Transaction> pages = new ArrayList<>();
+        TransactionCursor cursor = null;
+        List<Transaction> page;
+        do {
+            page = transactionHistoryRepository.findPage(walletId, cursor, 7);
+            pages.addAll(page);
+            cursor = page.isEmpty() ? null : TransactionCursor.after(page.get(page.size() - 1));
+        } while (page.size() == 7);
+
+        List<Transaction> export = new ArrayList<>();
+        transactionHistoryRepository.forEach(walletId, export::add);
+        return new Snapshot(balances, timeline, pages, export);
+    }
+
+    private record Snapshot(List<BigDecimal> balances, List<BigDecimal> timeline, List<Transaction> pages,
+                            List<Transaction> export) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.walletapp.infrastructure.persistence;
+
+import com.walletapp.application.service.WalletService;
+import com.walletapp.infrastructure.persistence.ReconciliationReport.WalletDrift;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// range-size pequeno para que poucas carteiras já forcem a divisão em vários intervalos
+@SpringBootTest(properties = {"wallet.reconciliation.range-size=2", "wallet.reconciliation.max-rows-per-second=0"})
+class LedgerReconcilerTest {
+
+    @Autowired
+    private LedgerReconciler ledgerReconciler;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private JpaWalletRepository jpaWalletRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void reconcile_ShouldReportOnlyWalletsWhoseBalanceDiffersFromLedger() {
+        List<UUID> healthy = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            UUID walletId = walletService.createWallet(UUID.randomUUID());
+            walletService.depositFunds(walletId, BigDecimal.valueOf(100), UUID.randomUUID());
+            walletService.withdrawFunds(walletId, new BigDecimal("30.25"), UUID.randomUUID());
+            healthy.add(walletId);
+        }
+        UUID corrupted = walletService.createWallet(UUID.randomUUID());
+        walletService.depositFunds(corrupted, BigDecimal.TEN, UUID.randomUUID());
+        // Altera o saldo sem gravar no ledger
+        transactionTemplate.executeWithoutResult(status -> jpaWalletRepository.incrementBalance(corrupted, 100L));
+
+        ReconciliationReport report = ledgerReconciler.reconcile();
+
+        assertThat(report.wallets()).isGreaterThanOrEqualTo(7);
+        assertThat(report.transactions()).isGreaterThanOrEqualTo(13);
+        assertThat(report.drifts()).extracting(WalletDrift::walletId)
+                .contains(corrupted)
+                .doesNotContainAnyElementsOf(healthy);
+        WalletDrift drift = report.drifts().stream().filter(d -> d.walletId().equals(corrupted)).findFirst().orElseThrow();
+        assertThat(drift.balance()).isEqualByComparingTo("11");
+        assertThat(drift.ledgerBalance()).isEqualByComparingTo("10");
+    }
+
+    @Test
+    void uuidNumbers_ShouldFollowUnsignedOrder() {
+        UUID low = new UUID(0x7FFFFFFFFFFFFFFFL, -1L);
+        UUID high = new UUID(0x8000000000000000L, 0L);
+
+        assertThat(LedgerReconciler.compareUnsigned(low, high)).isNegative();
+        assertThat(LedgerReconciler.toNumber(high).subtract(LedgerReconciler.toNumber(low))).isEqualTo(BigInteger.ONE);
+        assertThat(LedgerReconciler.toUuid(LedgerReconciler.toNumber(high))).isEqualTo(high);
+    }
+}
@@ -0,0 +1,31 @@
+package com.walletapp.infrastructure.rest;
+
+import com.walletapp.infrastructure.outbox.InProcessBalanceChangeSink;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceChangeStreamTest {
+
+    @Test
+    void open_ShouldRejectSubscription_WhenRunningWithSeveralReplicas() {
+        BalanceChangeStream stream = new BalanceChangeStream(new InProcessBalanceChangeSink(), Duration.ofMinutes(1), 10,
+                true, "jdbc");
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> stream.open(null));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    @Test
+    void open_ShouldRejectSubscription_WhenDisabled() {
+        BalanceChangeStream stream = new BalanceChangeStream(new InProcessBalanceChangeSink(), Duration.ofMinutes(1), 10,
+                false, "none");
+
+        assertThrows(ResponseStatusException.class, () -> stream.open(null));
+    }
+}
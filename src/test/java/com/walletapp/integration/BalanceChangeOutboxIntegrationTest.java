@@ -0,0 +1,160 @@
+package com.walletapp.integration;
+
+import com.walletapp.application.service.BatchOperation;
+import com.walletapp.application.service.BatchOperationService;
+import com.walletapp.application.service.WalletService;
+import com.walletapp.domain.model.BalanceChangeEvent;
+import com.walletapp.domain.model.TransactionType;
+import com.walletapp.infrastructure.outbox.InProcessBalanceChangeSink;
+import com.walletapp.infrastructure.outbox.OutboxRelay;
+import com.walletapp.infrastructure.persistence.JpaOutboxRelayLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Banco próprio e relay parado: os relays de outros contextos de teste não consomem este outbox,
+// e cada teste publica chamando relay()
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-test;DB_CLOSE_DELAY=-1",
+        "wallet.outbox.poll-interval-ms=3600000"
+})
+class BalanceChangeOutboxIntegrationTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private BatchOperationService batchOperationService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InProcessBalanceChangeSink sink;
+
+    @Autowired
+    private JpaOutboxRelayLeaseRepository jpaOutboxRelayLeaseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<BalanceChangeEvent> received = new CopyOnWriteArrayList<>();
+    private final List<Runnable> subscriptions = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        subscriptions.forEach(Runnable::run);
+    }
+
+    @Test
+    void mutations_ShouldPublishEventsInCommitOrder() {
+        subscriptions.add(sink.subscribe(received::addAll));
+        UUID walletId = walletService.createWallet(UUID.randomUUID());
+        UUID otherWalletId = walletService.createWallet(UUID.randomUUID());
+
+        walletService.depositFunds(walletId, BigDecimal.valueOf(100), UUID.randomUUID());
+        walletService.withdrawFunds(walletId, BigDecimal.valueOf(30), UUID.randomUUID());
+        // Desfeito: não pode deixar evento no outbox
+        assertThatThrownBy(() -> walletService.withdrawFunds(walletId, BigDecimal.valueOf(500), UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+        walletService.transferFunds(walletId, otherWalletId, BigDecimal.valueOf(20), UUID.randomUUID());
+        outboxRelay.relay();
+
+        List<BalanceChangeEvent> events = eventsOf(walletId);
+        assertThat(events).extracting(BalanceChangeEvent::type)
+                .containsExactly(TransactionType.DEPOSIT, TransactionType.WITHDRAWAL, TransactionType.TRANSFER_SENT);
+        assertThat(events).extracting(BalanceChangeEvent::delta)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(BigDecimal.valueOf(100), BigDecimal.valueOf(-30), BigDecimal.valueOf(-20));
+        assertThat(events).extracting(BalanceChangeEvent::newBalance)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(BigDecimal.valueOf(100), BigDecimal.valueOf(70), BigDecimal.valueOf(50));
+        assertThat(events).extracting(BalanceChangeEvent::sequence).isSorted();
+        assertThat(eventsOf(otherWalletId)).singleElement()
+                .satisfies(event -> assertThat(event.newBalance()).isEqualByComparingTo("20"));
+        // Publicados e apagados: a próxima leitura não encontra nada
+        assertThat(outboxRelay.relay()).isZero();
+    }
+
+    @Test
+    void batch_ShouldPublishBalanceAfterEachItem() {
+        subscriptions.add(sink.subscribe(received::addAll));
+        UUID walletId = walletService.createWallet(UUID.randomUUID());
+
+        batchOperationService.execute(List.of(
+                new BatchOperation(BatchOperation.Type.DEPOSIT, walletId, null, BigDecimal.TEN, UUID.randomUUID()),
+                new BatchOperation(BatchOperation.Type.DEPOSIT, walletId, null, BigDecimal.TEN, UUID.randomUUID())));
+        outboxRelay.relay();
+
+        assertThat(eventsOf(walletId)).extracting(BalanceChangeEvent::newBalance)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(BigDecimal.TEN, BigDecimal.valueOf(20));
+    }
+
+    @Test
+    void relay_ShouldRedeliverBatch_WhenSinkFails() {
+        subscriptions.add(sink.subscribe(received::addAll));
+        AtomicBoolean failed = new AtomicBoolean();
+        subscriptions.add(sink.subscribe(events -> {
+            if (failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("destino indisponível");
+            }
+        }));
+        UUID walletId = walletService.createWallet(UUID.randomUUID());
+        walletService.depositFunds(walletId, BigDecimal.ONE, UUID.randomUUID());
+
+        assertThatThrownBy(() -> outboxRelay.relay()).isInstanceOf(IllegalStateException.class);
+        outboxRelay.relay();
+
+        // Ao menos uma vez: o mesmo evento chega de novo, com a mesma sequência
+        List<BalanceChangeEvent> events = eventsOf(walletId);
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0)).isEqualTo(events.get(1));
+    }
+
+    @Test
+    void relay_ShouldSkipRound_WhenAnotherReplicaHoldsTheLease() throws Exception {
+        subscriptions.add(sink.subscribe(received::addAll));
+        UUID walletId = walletService.createWallet(UUID.randomUUID());
+        walletService.depositFunds(walletId, BigDecimal.ONE, UUID.randomUUID());
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Outra réplica no meio de um lote: segura a linha do relay numa transação aberta
+        Thread otherReplica = Thread.ofPlatform().start(() -> transactionTemplate.executeWithoutResult(status -> {
+            assertThat(jpaOutboxRelayLeaseRepository.lockIfFree("outbox-relay")).isPresent();
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(outboxRelay.relay()).isZero();
+        assertThat(eventsOf(walletId)).isEmpty();
+
+        release.countDown();
+        otherReplica.join();
+        assertThat(outboxRelay.relay()).isEqualTo(1);
+        assertThat(eventsOf(walletId)).hasSize(1);
+    }
+
+    private List<BalanceChangeEvent> eventsOf(UUID walletId) {
+        return received.stream().filter(event -> event.walletId().equals(walletId)).toList();
+    }
+}
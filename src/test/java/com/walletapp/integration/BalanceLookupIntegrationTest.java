@@ -0,0 +1,103 @@
+package com.walletapp.integration;
+
+import com.walletapp.application.service.BalanceLookupService;
+import com.walletapp.application.service.WalletBalanceResult;
+import com.walletapp.application.service.WalletBalanceResult.Status;
+import com.walletapp.application.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "wallet.balance.bulk.max-ids=5")
+class BalanceLookupIntegrationTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private BalanceLookupService balanceLookupService;
+
+    @Test
+    void retrieveBalances_ShouldAnswerEachIdInOrder_AndReportMissingOnes() {
+        UUID cached = walletService.createWallet(UUID.randomUUID());
+        UUID uncached = walletService.createWallet(UUID.randomUUID());
+        walletService.depositFunds(cached, BigDecimal.valueOf(40), UUID.randomUUID());
+        walletService.depositFunds(uncached, BigDecimal.valueOf(15), UUID.randomUUID());
+        // Uma vem do cache, a outra da consulta IN
+        walletService.retrieveBalance(cached);
+        UUID missing = UUID.randomUUID();
+
+        List<WalletBalanceResult> results = balanceLookupService.retrieveBalances(List.of(uncached, missing, cached, uncached));
+
+        assertThat(results).extracting(WalletBalanceResult::walletId).containsExactly(uncached, missing, cached, uncached);
+        assertThat(results).extracting(WalletBalanceResult::status)
+                .containsExactly(Status.FOUND, Status.NOT_FOUND, Status.FOUND, Status.FOUND);
+        assertThat(results.get(0).balance()).isEqualByComparingTo("15");
+        assertThat(results.get(1).balance()).isNull();
+        assertThat(results.get(2).balance()).isEqualByComparingTo("40");
+    }
+
+    @Test
+    void retrieveBalancesByUser_ShouldReturnOnlyThatUsersWallets() {
+        UUID userId = UUID.randomUUID();
+        UUID first = walletService.createWallet(userId);
+        UUID second = walletService.createWallet(userId);
+        walletService.createWallet(UUID.randomUUID());
+        walletService.depositFunds(second, BigDecimal.TEN, UUID.randomUUID());
+
+        List<WalletBalanceResult> results = balanceLookupService.retrieveBalancesByUser(userId, null);
+
+        assertThat(results).extracting(WalletBalanceResult::walletId).containsExactlyInAnyOrder(first, second);
+        assertThat(results).allMatch(result -> result.status() == Status.FOUND);
+    }
+
+    @Test
+    void retrieveBalancesByUser_ShouldPageByWalletId_WhenUserHasMoreWalletsThanTheLimit() {
+        UUID userId = UUID.randomUUID();
+        List<UUID> walletIds = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            walletIds.add(walletService.createWallet(userId));
+        }
+
+        List<WalletBalanceResult> first = balanceLookupService.retrieveBalancesByUser(userId, null);
+        List<WalletBalanceResult> second = balanceLookupService.retrieveBalancesByUser(userId,
+                first.get(first.size() - 1).walletId());
+
+        assertThat(first).hasSize(5);
+        assertThat(second).hasSize(2);
+        assertThat(Stream.concat(first.stream(), second.stream()).map(WalletBalanceResult::walletId))
+                .containsExactlyInAnyOrderElementsOf(walletIds);
+    }
+
+    @Test
+    void retrieveBalances_ShouldRejectMoreIdsThanTheLimit() {
+        List<UUID> walletIds = Collections.nCopies(6, UUID.randomUUID());
+
+        assertThatThrownBy(() -> balanceLookupService.retrieveBalances(walletIds))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        exception -> assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST))
+                .hasMessageContaining("5 carteiras");
+    }
+
+    @Test
+    void retrieveBalances_ShouldRejectNullIds() {
+        List<UUID> walletIds = Arrays.asList(UUID.randomUUID(), null);
+
+        assertThatThrownBy(() -> balanceLookupService.retrieveBalances(walletIds))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        exception -> assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+}
@@ -0,0 +1,55 @@
+package com.walletapp.integration;
+
+import com.walletapp.application.service.BalanceTimelineService;
+import com.walletapp.application.service.WalletService;
+import com.walletapp.domain.model.TimelineInterval;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "wallet.timeline.max-buckets=24")
+class BalanceTimelineIntegrationTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private BalanceTimelineService balanceTimelineService;
+
+    @Test
+    void retrieveBalanceTimeline_ShouldRejectPeriodThatDoesNotStartBeforeItEnds() {
+        UUID walletId = walletService.createWallet(UUID.randomUUID());
+
+        assertThatThrownBy(() -> balanceTimelineService.retrieveBalanceTimeline(
+                walletId, "2024-01-02 00:00:00", "2024-01-01 00:00:00", TimelineInterval.HOUR))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        exception -> assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void retrieveBalanceTimeline_ShouldRejectMoreIntervalsThanTheLimit() {
+        UUID walletId = walletService.createWallet(UUID.randomUUID());
+
+        assertThatThrownBy(() -> balanceTimelineService.retrieveBalanceTimeline(
+                walletId, "2024-01-01 00:00:00", "2024-01-02 01:00:00", TimelineInterval.HOUR))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        exception -> assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST))
+                .hasMessageContaining("24 intervalos");
+    }
+
+    @Test
+    void retrieveBalanceTimeline_ShouldAcceptExactlyTheLimit() {
+        UUID walletId = walletService.createWallet(UUID.randomUUID());
+
+        assertThat(balanceTimelineService.retrieveBalanceTimeline(
+                walletId, "2024-01-01 00:00:00", "2024-01-02 00:00:00", TimelineInterval.HOUR))
+                .hasSize(24);
+    }
+}
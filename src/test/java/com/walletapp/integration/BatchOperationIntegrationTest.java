@@ -0,0 +1,68 @@
+package com.walletapp.integration;
+
+import com.walletapp.application.service.BatchItemResult;
+import com.walletapp.application.service.BatchItemResult.Status;
+import com.walletapp.application.service.BatchOperation;
+import com.walletapp.application.service.BatchOperation.Type;
+import com.walletapp.application.service.BatchOperationService;
+import com.walletapp.application.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "wallet.batch.chunk-size=3")
+class BatchOperationIntegrationTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private BatchOperationService batchOperationService;
+
+    @Test
+    void execute_ShouldReportEachItem_AndApplyOnlyValidOnes() {
+        UUID first = walletService.createWallet(UUID.randomUUID());
+        UUID second = walletService.createWallet(UUID.randomUUID());
+        UUID alreadyUsed = UUID.randomUUID();
+        walletService.depositFunds(first, BigDecimal.valueOf(10), alreadyUsed);
+        UUID repeated = UUID.randomUUID();
+
+        List<BatchOperation> operations = List.of(
+                new BatchOperation(Type.DEPOSIT, first, null, BigDecimal.valueOf(100), UUID.randomUUID()),
+                new BatchOperation(Type.DEPOSIT, first, null, BigDecimal.valueOf(10), alreadyUsed),
+                new BatchOperation(Type.WITHDRAWAL, first, null, BigDecimal.valueOf(10), alreadyUsed),
+                new BatchOperation(Type.TRANSFER, first, second, BigDecimal.valueOf(60), repeated),
+                new BatchOperation(Type.TRANSFER, first, second, BigDecimal.valueOf(60), repeated),
+                new BatchOperation(Type.WITHDRAWAL, second, null, BigDecimal.valueOf(500), UUID.randomUUID()),
+                new BatchOperation(Type.DEPOSIT, UUID.randomUUID(), null, BigDecimal.ONE, UUID.randomUUID()),
+                new BatchOperation(Type.DEPOSIT, second, null, BigDecimal.ZERO, UUID.randomUUID()));
+
+        List<BatchItemResult> results = batchOperationService.execute(operations);
+
+        assertThat(results).extracting(BatchItemResult::status).containsExactly(
+                Status.APPLIED, Status.DUPLICATE, Status.CONFLICT, Status.APPLIED, Status.DUPLICATE,
+                Status.INSUFFICIENT_FUNDS, Status.WALLET_NOT_FOUND, Status.INVALID);
+        assertThat(walletService.retrieveBalance(first)).isEqualByComparingTo("50");
+        assertThat(walletService.retrieveBalance(second)).isEqualByComparingTo("60");
+    }
+
+    @Test
+    void execute_ShouldNotReapply_WhenBatchIsResubmitted() {
+        UUID walletId = walletService.createWallet(UUID.randomUUID());
+        List<BatchOperation> operations = List.of(
+                new BatchOperation(Type.DEPOSIT, walletId, null, BigDecimal.valueOf(5), UUID.randomUUID()),
+                new BatchOperation(Type.DEPOSIT, walletId, null, BigDecimal.valueOf(7), UUID.randomUUID()));
+
+        batchOperationService.execute(operations);
+        List<BatchItemResult> resubmitted = batchOperationService.execute(operations);
+
+        assertThat(resubmitted).extracting(BatchItemResult::status).containsOnly(Status.DUPLICATE);
+        assertThat(walletService.retrieveBalance(walletId)).isEqualByComparingTo("12");
+    }
+}
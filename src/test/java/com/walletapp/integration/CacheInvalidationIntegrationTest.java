@@ -0,0 +1,61 @@
+package com.walletapp.integration;
+
+import com.walletapp.WalletserviceApplication;
+import com.walletapp.application.service.WalletService;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Duas réplicas (dois contextos Spring) sobre o mesmo banco: uma escrita no nó A precisa tirar do cache do
+ * nó B o saldo que ele já tinha lido, bem antes do TTL.
+ */
+class CacheInvalidationIntegrationTest {
+    private static final Duration MAX_DELAY = Duration.ofSeconds(2);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"loopback", "jdbc"})
+    void writeOnNodeA_ShouldEvictBalanceCachedOnNodeB(String bus) throws Exception {
+        String database = "jdbc:h2:mem:invalidation-" + bus + ";DB_CLOSE_DELAY=-1";
+        try (ConfigurableApplicationContext nodeA = startNode(bus, database, "create-drop");
+             ConfigurableApplicationContext nodeB = startNode(bus, database, "none")) {
+            WalletService walletA = nodeA.getBean(WalletService.class);
+            WalletService walletB = nodeB.getBean(WalletService.class);
+
+            UUID walletId = walletA.createWallet(UUID.randomUUID());
+            walletA.depositFunds(walletId, BigDecimal.valueOf(100), UUID.randomUUID());
+            assertThat(walletB.retrieveBalance(walletId)).isEqualByComparingTo("100");
+
+            walletA.depositFunds(walletId, BigDecimal.valueOf(50), UUID.randomUUID());
+
+            long deadline = System.nanoTime() + MAX_DELAY.toNanos();
+            BigDecimal seenByB = walletB.retrieveBalance(walletId);
+            while (seenByB.compareTo(BigDecimal.valueOf(150)) != 0 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+                seenByB = walletB.retrieveBalance(walletId);
+            }
+            assertThat(seenByB).isEqualByComparingTo("150");
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(String bus, String database, String ddlAuto) {
+        return new SpringApplicationBuilder(WalletserviceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + database,
+                        "spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                        "wallet.invalidation.bus=" + bus,
+                        "wallet.invalidation.poll-interval-ms=50",
+                        // TTL longo: só a invalidação pode explicar o saldo novo no nó B
+                        "wallet.balance.cache.ttl=PT10M")
+                .run();
+    }
+}
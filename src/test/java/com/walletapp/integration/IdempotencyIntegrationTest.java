@@ -0,0 +1,65 @@
+package com.walletapp.integration;
+
+import com.walletapp.application.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class IdempotencyIntegrationTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Test
+    void concurrentRetries_ShouldBeAppliedOnce() throws Exception {
+        UUID walletId = walletService.createWallet(UUID.randomUUID());
+        UUID idempotencyKey = UUID.randomUUID();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                walletService.depositFunds(walletId, BigDecimal.TEN, idempotencyKey);
+                return null;
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        for (Future<?> result : results) {
+            result.get();
+        }
+
+        assertThat(walletService.retrieveBalance(walletId)).isEqualByComparingTo("10");
+    }
+
+    @Test
+    void repeatedTransfer_ShouldBeAppliedOnce() {
+        UUID from = walletService.createWallet(UUID.randomUUID());
+        UUID to = walletService.createWallet(UUID.randomUUID());
+        walletService.depositFunds(from, BigDecimal.valueOf(100), UUID.randomUUID());
+        UUID idempotencyKey = UUID.randomUUID();
+
+        walletService.transferFunds(from, to, BigDecimal.valueOf(60), idempotencyKey);
+        walletService.transferFunds(from, to, BigDecimal.valueOf(60), idempotencyKey);
+
+        assertThat(walletService.retrieveBalance(from)).isEqualByComparingTo("40");
+        assertThat(walletService.retrieveBalance(to)).isEqualByComparingTo("60");
+    }
+}
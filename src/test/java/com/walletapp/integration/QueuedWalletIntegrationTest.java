@@ -0,0 +1,87 @@
+package com.walletapp.integration;
+
+import com.walletapp.application.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "wallet.concurrency.strategy=QUEUED")
+class QueuedWalletIntegrationTest {
+    private static final int THREADS = 8;
+    private static final int DEPOSITS_PER_THREAD = 50;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Test
+    void concurrentDepositsOnHotWallet_ShouldEachApplyOnce() throws Exception {
+        UUID walletId = walletService.createWallet(UUID.randomUUID());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                UUID first = UUID.randomUUID();
+                walletService.depositFunds(walletId, BigDecimal.ONE, first);
+                for (int i = 1; i < DEPOSITS_PER_THREAD; i++) {
+                    walletService.depositFunds(walletId, BigDecimal.ONE, UUID.randomUUID());
+                }
+                // Repetição de cliente: não pode ser aplicada de novo
+                walletService.depositFunds(walletId, BigDecimal.ONE, first);
+                return null;
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        for (Future<?> result : results) {
+            result.get();
+        }
+
+        assertThat(walletService.retrieveBalance(walletId)).isEqualByComparingTo(String.valueOf(THREADS * DEPOSITS_PER_THREAD));
+    }
+
+    @Test
+    void withdrawal_ShouldBeRejected_WhenFundsAreInsufficient() {
+        UUID walletId = walletService.createWallet(UUID.randomUUID());
+        walletService.depositFunds(walletId, BigDecimal.valueOf(100), UUID.randomUUID());
+
+        assertThatThrownBy(() -> walletService.withdrawFunds(walletId, BigDecimal.valueOf(150), UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Valor de saque inválido");
+        walletService.withdrawFunds(walletId, BigDecimal.valueOf(40), UUID.randomUUID());
+
+        assertThat(walletService.retrieveBalance(walletId)).isEqualByComparingTo("60");
+    }
+
+    @Test
+    void transfer_ShouldMoveFundsOnce_WhenQueued() {
+        UUID from = walletService.createWallet(UUID.randomUUID());
+        UUID to = walletService.createWallet(UUID.randomUUID());
+        walletService.depositFunds(from, BigDecimal.valueOf(100), UUID.randomUUID());
+        UUID idempotencyKey = UUID.randomUUID();
+
+        walletService.transferFunds(from, to, BigDecimal.valueOf(70), idempotencyKey);
+        walletService.transferFunds(from, to, BigDecimal.valueOf(70), idempotencyKey);
+
+        assertThat(walletService.retrieveBalance(from)).isEqualByComparingTo("30");
+        assertThat(walletService.retrieveBalance(to)).isEqualByComparingTo("70");
+        assertThatThrownBy(() -> walletService.transferFunds(from, UUID.randomUUID(), BigDecimal.ONE, UUID.randomUUID()))
+                .hasMessage("Carteira de destino não encontrada");
+    }
+}
@@ -0,0 +1,76 @@
+package com.walletapp.integration;
+
+import com.walletapp.application.service.TransactionHistoryService;
+import com.walletapp.application.service.WalletService;
+import com.walletapp.domain.exception.InvalidCursorException;
+import com.walletapp.domain.model.Transaction;
+import com.walletapp.domain.model.TransactionPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class TransactionHistoryIntegrationTest {
+    private static final int TRANSACTIONS = 25;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    @Test
+    void retrieveTransactions_ShouldWalkLedgerWithCursor() {
+        UUID walletId = walletWithDeposits();
+
+        List<Transaction> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPage page = transactionHistoryService.retrieveTransactions(walletId, cursor, 10);
+            walked.addAll(page.transactions());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(walked).hasSize(TRANSACTIONS)
+                .isSortedAccordingTo(Comparator.comparing(Transaction::timestamp).thenComparing(Transaction::id));
+        assertThat(walked).extracting(Transaction::id).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void exportTransactions_ShouldMatchPagedOrder() {
+        UUID walletId = walletWithDeposits();
+
+        List<Transaction> exported = new ArrayList<>();
+        transactionHistoryService.exportTransactions(walletId, exported::add);
+
+        assertThat(exported).isEqualTo(transactionHistoryService.retrieveTransactions(walletId, null, TRANSACTIONS).transactions());
+    }
+
+    @Test
+    void retrieveTransactions_ShouldRejectMalformedCursor() {
+        UUID walletId = walletService.createWallet(UUID.randomUUID());
+
+        assertThatThrownBy(() -> transactionHistoryService.retrieveTransactions(walletId, "nao-e-um-cursor", 10))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private UUID walletWithDeposits() {
+        UUID walletId = walletService.createWallet(UUID.randomUUID());
+        for (int i = 1; i <= TRANSACTIONS; i++) {
+            walletService.depositFunds(walletId, BigDecimal.valueOf(i), UUID.randomUUID());
+        }
+        return walletId;
+    }
+}
@@ -0,0 +1,60 @@
+package com.walletapp.integration;
+
+import com.walletapp.application.service.WalletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TransferConcurrencyIntegrationTest {
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 50;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Test
+    void opposingTransfers_ShouldCompleteWithoutDeadlock() throws Exception {
+        UUID walletA = walletService.createWallet(UUID.randomUUID());
+        UUID walletB = walletService.createWallet(UUID.randomUUID());
+        walletService.depositFunds(walletA, BigDecimal.valueOf(1000), UUID.randomUUID());
+        walletService.depositFunds(walletB, BigDecimal.valueOf(1000), UUID.randomUUID());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            // Metade das threads transfere A→B e a outra metade B→A
+            UUID from = t % 2 == 0 ? walletA : walletB;
+            UUID to = t % 2 == 0 ? walletB : walletA;
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    walletService.transferFunds(from, to, BigDecimal.ONE, UUID.randomUUID());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        for (Future<?> result : results) {
+            result.get();
+        }
+
+        assertThat(walletService.retrieveBalance(walletA)).isEqualByComparingTo("1000");
+        assertThat(walletService.retrieveBalance(walletB)).isEqualByComparingTo("1000");
+    }
+}